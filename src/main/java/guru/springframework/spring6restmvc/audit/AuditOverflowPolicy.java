@@ -0,0 +1,20 @@
+package guru.springframework.spring6restmvc.audit;
+
+/**
+ * What {@link BeerAuditWriter} does when its queue is full.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:10:42
+ */
+public enum AuditOverflowPolicy {
+    /**
+     * Wait for room; the publishing thread slows down to the writer's pace. Audits are queued from inside the beer
+     * write's transaction, so a blocked request keeps its database connection and can starve the pool.
+     */
+    BLOCK,
+    /** Discard the oldest queued audit to make room for the new one. */
+    DROP_OLDEST,
+    /** Append the audit to a local spill file, replayed once the queue drains. */
+    SPILL
+}
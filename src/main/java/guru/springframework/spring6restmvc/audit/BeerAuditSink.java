@@ -0,0 +1,17 @@
+package guru.springframework.spring6restmvc.audit;
+
+import guru.springframework.spring6restmvc.domain.BeerAudit;
+
+import java.util.List;
+
+/**
+ * Destination for batches of {@link BeerAudit} rows drained by {@link BeerAuditWriter}.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:10:40
+ */
+public interface BeerAuditSink {
+
+    void write(List<BeerAudit> audits);
+}
@@ -0,0 +1,334 @@
+package guru.springframework.spring6restmvc.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6restmvc.domain.BeerAudit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.id.uuid.CustomVersionOneStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded audit queue drained by a single writer thread. Audits are handed to the {@link BeerAuditSink} in batches of
+ * up to {@code batch-size} rows, or whatever has arrived once {@code flush-interval} has passed since the first row
+ * of the batch. One writer means one connection for auditing no matter how many beers change at once.
+ * <p>
+ * When the queue is full the configured {@link AuditOverflowPolicy} applies, {@code SPILL} unless set otherwise.
+ * Spilled audits are written as JSON lines to a local file and replayed through the sink whenever the queue has been
+ * drained. Audit ids are assigned on enqueue, from the same time-based generator {@link BeerAudit} uses, so a spilled
+ * audit keeps its id through the replay. Replays are checkpointed by line, and spilled rows the sink keeps refusing
+ * are set aside in a {@code .rejected} file so they cannot hold up the rest.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:10:50
+ */
+@Slf4j
+@Component
+public class BeerAuditWriter {
+
+    static final String SPILL_FILE = "beer-audit-spill.ndjson";
+
+    private static final CustomVersionOneStrategy AUDIT_IDS = new CustomVersionOneStrategy();
+
+    private final BeerAuditSink sink;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<BeerAudit> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final Path spillFile;
+    private final Path replayFile;
+    private final Path checkpointFile;
+    private final Path rejectedFile;
+
+    private final Timer flushTimer;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter spilled;
+    private final Counter failed;
+    private final Counter rejected;
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public BeerAuditWriter(BeerAuditSink sink, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${app.beer-audit.queue-capacity:10000}") int queueCapacity,
+                           @Value("${app.beer-audit.batch-size:500}") int batchSize,
+                           @Value("${app.beer-audit.flush-interval:200ms}") Duration flushInterval,
+                           @Value("${app.beer-audit.overflow-policy:SPILL}") AuditOverflowPolicy overflowPolicy,
+                           @Value("${app.beer-audit.spill-dir:${java.io.tmpdir}}") Path spillDir) {
+        this.sink = sink;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.overflowPolicy = overflowPolicy;
+        this.spillFile = spillDir.resolve(SPILL_FILE);
+        this.replayFile = spillDir.resolve(SPILL_FILE + ".replay");
+        this.checkpointFile = spillDir.resolve(SPILL_FILE + ".replay.checkpoint");
+        this.rejectedFile = spillDir.resolve(SPILL_FILE + ".rejected");
+
+        meterRegistry.gauge("beer.audit.queue.depth", queue, BlockingQueue::size);
+        this.flushTimer = Timer.builder("beer.audit.flush").description("Time to write one audit batch").register(meterRegistry);
+        this.written = meterRegistry.counter("beer.audit.written");
+        this.dropped = meterRegistry.counter("beer.audit.dropped");
+        this.spilled = meterRegistry.counter("beer.audit.spilled");
+        this.failed = meterRegistry.counter("beer.audit.failed");
+        this.rejected = meterRegistry.counter("beer.audit.rejected");
+
+        this.writer = Thread.ofPlatform().name("beer-audit-writer").daemon().start(this::run);
+        log.info("Beer audit writer started: capacity {}, batch {}, interval {}, overflow {}", queueCapacity, batchSize,
+                flushInterval, overflowPolicy);
+    }
+
+    /**
+     * Time-based audit id, as {@code @UuidGenerator(style = TIME)} on {@link BeerAudit#getAuditId()} would assign.
+     */
+    static UUID newAuditId() {
+        return AUDIT_IDS.generateUUID(null);
+    }
+
+    public void enqueue(BeerAudit audit) {
+        if (audit.getAuditId() == null)
+            audit.setAuditId(newAuditId());
+        if (queue.offer(audit))
+            return;
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    queue.put(audit);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                    log.warn("Interrupted while queueing audit for beer {}; audit dropped", audit.getId());
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(audit)) {
+                    if (queue.poll() != null)
+                        dropped.increment();
+                }
+            }
+            case SPILL -> spill(List.of(audit));
+        }
+    }
+
+    public void enqueueAll(Collection<BeerAudit> audits) {
+        audits.forEach(this::enqueue);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(flushInterval.toMillis() * 10 + 5_000);
+        List<BeerAudit> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty())
+            write(rest);
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            try {
+                BeerAudit first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpill();
+                    continue;
+                }
+                List<BeerAudit> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0)
+                        break;
+                    BeerAudit next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Beer audit writer loop failed", e);
+            }
+        }
+    }
+
+    private void write(List<BeerAudit> batch) {
+        try {
+            flushTimer.record(() -> sink.write(batch));
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} beer audits", batch.size(), e);
+            if (overflowPolicy == AuditOverflowPolicy.SPILL) {
+                spill(batch);
+            } else {
+                failed.increment(batch.size());
+            }
+        }
+    }
+
+    private synchronized void spill(List<BeerAudit> audits) {
+        try (BufferedWriter out = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (BeerAudit audit : audits) {
+                out.write(objectMapper.writeValueAsString(audit));
+                out.newLine();
+            }
+            spilled.increment(audits.size());
+        } catch (IOException e) {
+            dropped.increment(audits.size());
+            log.error("Could not spill {} beer audits to {}", audits.size(), spillFile, e);
+        }
+    }
+
+    /**
+     * Moves the spill file aside and feeds it back through the sink in batches. Runs on the writer thread only when
+     * the queue is empty, so replayed audits never hold up live ones.
+     * <p>
+     * The number of lines written so far is checkpointed after every batch, so a replay that fails part way resumes
+     * after the last written batch on the next idle poll instead of inserting the same audits again.
+     */
+    private void replaySpill() {
+        synchronized (this) {
+            if (Files.notExists(replayFile)) {
+                if (Files.notExists(spillFile))
+                    return;
+                try {
+                    Files.deleteIfExists(checkpointFile);
+                    Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    log.warn("Could not rotate audit spill file {}: {}", spillFile, e.getMessage());
+                    return;
+                }
+            }
+        }
+        long position = readCheckpoint();
+        try (BufferedReader in = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            List<String> lines = new ArrayList<>(batchSize);
+            long lineNumber = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (lineNumber++ < position)
+                    continue;
+                lines.add(line);
+                if (lines.size() == batchSize) {
+                    position = replay(lines, position);
+                    lines.clear();
+                }
+            }
+            if (!lines.isEmpty())
+                position = replay(lines, position);
+        } catch (IOException | RuntimeException e) {
+            // the replay file stays put and is resumed from the checkpoint on the next idle poll
+            log.warn("Could not replay spilled beer audits from {} past line {}: {}", replayFile, position, e.getMessage());
+            return;
+        }
+        try {
+            Files.delete(replayFile);
+            Files.deleteIfExists(checkpointFile);
+            log.info("Replayed spilled beer audits from {}", replayFile);
+        } catch (IOException e) {
+            log.warn("Could not delete replayed audit file {}: {}", replayFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes one batch of spilled lines starting at line {@code position} and returns the checkpointed position after
+     * it. If the sink refuses the batch for its data, the rows are written one at a time: a row that is already stored
+     * was written by an earlier, interrupted replay and is skipped, any other refused row is moved to the rejected
+     * file. Other failures propagate and leave the checkpoint at the start of the batch.
+     */
+    private long replay(List<String> lines, long position) throws IOException {
+        List<BeerAudit> audits = new ArrayList<>(lines.size());
+        for (String line : lines)
+            audits.add(parse(line));
+        try {
+            List<BeerAudit> batch = audits.stream().filter(Objects::nonNull).toList();
+            if (!batch.isEmpty()) {
+                sink.write(batch);
+                written.increment(batch.size());
+            }
+            return checkpoint(position + lines.size());
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Spilled beer audit batch from line {} was refused, retrying row by row: {}", position, e.getMessage());
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            BeerAudit audit = audits.get(i);
+            if (audit != null) {
+                try {
+                    sink.write(List.of(audit));
+                    written.increment();
+                } catch (DuplicateKeyException e) {
+                    log.debug("Spilled beer audit {} was already written", audit.getAuditId());
+                } catch (DataIntegrityViolationException e) {
+                    reject(lines.get(i), e.getMessage());
+                }
+            }
+            checkpoint(position + i + 1);
+        }
+        return position + lines.size();
+    }
+
+    private BeerAudit parse(String line) throws IOException {
+        if (line.isBlank())
+            return null;
+        try {
+            return objectMapper.readValue(line, BeerAudit.class);
+        } catch (JsonProcessingException e) {
+            reject(line, e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private void reject(String line, String reason) throws IOException {
+        Files.writeString(rejectedFile, line + System.lineSeparator(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        rejected.increment();
+        log.warn("Moved spilled beer audit to {}: {}", rejectedFile, reason);
+    }
+
+    private long readCheckpoint() {
+        try {
+            return Files.exists(checkpointFile) ? Long.parseLong(Files.readString(checkpointFile).trim()) : 0;
+        } catch (IOException | NumberFormatException e) {
+            // replaying from the start is safe, rows already written are skipped as duplicates
+            log.warn("Could not read audit replay checkpoint {}: {}", checkpointFile, e.getMessage());
+            return 0;
+        }
+    }
+
+    private long checkpoint(long position) throws IOException {
+        Files.writeString(checkpointFile, Long.toString(position), StandardCharsets.UTF_8);
+        return position;
+    }
+}
@@ -0,0 +1,62 @@
+package guru.springframework.spring6restmvc.audit;
+
+import guru.springframework.spring6restmvc.domain.BeerAudit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes audit batches to {@code beer_audit} as a single JDBC batch in one transaction, so a batch is stored whole or
+ * not at all and can be spilled and replayed without leaving part of it behind. The default sink; see
+ * {@link JournalBeerAuditSink} for the file based alternative.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:10:45
+ */
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(name = "app.beer-audit.sink", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcBeerAuditSink implements BeerAuditSink {
+
+    static final String INSERT_AUDIT = "insert into beer_audit (audit_id, id, version, beer_name, beer_style, upc, " +
+            "quantity_on_hand, price, created_date, update_date, audit_created_date, principal_name, audit_event_type) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void write(List<BeerAudit> audits) {
+        jdbcTemplate.batchUpdate(INSERT_AUDIT, audits, audits.size(), (ps, audit) -> {
+            if (audit.getAuditId() == null)
+                audit.setAuditId(BeerAuditWriter.newAuditId());
+            if (audit.getAuditCreatedDate() == null)
+                audit.setAuditCreatedDate(LocalDateTime.now());
+            ps.setString(1, audit.getAuditId().toString());
+            ps.setString(2, audit.getId().toString());
+            ps.setObject(3, audit.getVersion(), Types.SMALLINT);
+            ps.setString(4, audit.getBeerName());
+            ps.setObject(5, audit.getBeerStyle() == null ? null : audit.getBeerStyle().ordinal(), Types.TINYINT);
+            ps.setString(6, audit.getUpc());
+            ps.setObject(7, audit.getQuantityOnHand(), Types.INTEGER);
+            ps.setBigDecimal(8, audit.getPrice());
+            ps.setTimestamp(9, timestamp(audit.getCreatedDate()));
+            ps.setTimestamp(10, timestamp(audit.getUpdateDate()));
+            ps.setTimestamp(11, timestamp(audit.getAuditCreatedDate()));
+            ps.setString(12, audit.getPrincipalName());
+            ps.setString(13, audit.getAuditEventType());
+        });
+    }
+
+    private static Timestamp timestamp(LocalDateTime dateTime) {
+        return dateTime == null ? null : Timestamp.valueOf(dateTime);
+    }
+}
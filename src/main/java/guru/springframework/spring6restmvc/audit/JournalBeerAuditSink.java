@@ -0,0 +1,177 @@
+package guru.springframework.spring6restmvc.audit;
+
+import guru.springframework.spring6restmvc.domain.BeerAudit;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Keeps beer audits out of MySQL: batches are appended to rolling, memory-mapped {@link JournalSegment} files under
+ * {@code app.beer-audit.journal.dir}. Reads use each segment's in-memory index to skip segments that cannot match
+ * and scan only the rest. Enabled with {@code app.beer-audit.sink=journal}.
+ * <p>
+ * Segments are named after their sequence number, so the journal order survives a restart; the last segment is
+ * reopened for appending and the indexes are rebuilt by scanning. Only that last segment stays mapped; older ones are
+ * mapped for the length of a read. Whenever the journal rolls, sealed segments whose newest audit is older than
+ * {@code app.beer-audit.journal.retention} are deleted (a zero retention keeps everything).
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:12:10
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.beer-audit.sink", havingValue = "journal")
+public class JournalBeerAuditSink implements BeerAuditSink {
+
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Duration retention;
+    private final List<JournalSegment> segments = new CopyOnWriteArrayList<>();
+    private long nextSequence;
+
+    public JournalBeerAuditSink(@Value("${app.beer-audit.journal.dir:${java.io.tmpdir}/beer-audit-journal}") Path directory,
+                                @Value("${app.beer-audit.journal.segment-size:64MB}") DataSize segmentSize,
+                                @Value("${app.beer-audit.journal.retention:30d}") Duration retention) throws IOException {
+        this.directory = directory;
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.retention = retention;
+        Files.createDirectories(directory);
+
+        List<Path> existing;
+        try (Stream<Path> files = Files.list(directory)) {
+            existing = files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+        for (int i = 0; i < existing.size(); i++) {
+            Path file = existing.get(i);
+            segments.add(i < existing.size() - 1 ? JournalSegment.openSealed(file) : new JournalSegment(file, this.segmentSize));
+        }
+        nextSequence = existing.isEmpty() ? 0 : sequence(existing.getLast()) + 1;
+        if (segments.isEmpty())
+            roll();
+        expire();
+        log.info("Beer audit journal opened in {} with {} segments", directory, segments.size());
+    }
+
+    @Override
+    public synchronized void write(List<BeerAudit> audits) {
+        JournalSegment current = segments.getLast();
+        for (BeerAudit audit : audits) {
+            if (audit.getAuditId() == null)
+                audit.setAuditId(BeerAuditWriter.newAuditId());
+            if (audit.getAuditCreatedDate() == null)
+                audit.setAuditCreatedDate(LocalDateTime.now());
+            if (!current.append(audit)) {
+                seal(current);
+                current = roll();
+                expire();
+                if (!current.append(audit))
+                    throw new IllegalArgumentException("Audit for beer " + audit.getId() + " does not fit in a segment");
+            }
+        }
+        current.force();
+    }
+
+    /**
+     * Audits of one beer, oldest first.
+     */
+    public List<BeerAudit> findByBeerId(UUID beerId) {
+        return collect(segment -> segment.mayContain(beerId) ? segment.scanByBeerId(beerId) : List.of());
+    }
+
+    /**
+     * Audits created in {@code [from, to)}, oldest first.
+     */
+    public List<BeerAudit> findByAuditCreatedDate(LocalDateTime from, LocalDateTime to) {
+        long fromNanos = JournalSegment.epochNanos(from);
+        long toNanos = JournalSegment.epochNanos(to);
+        return collect(segment -> segment.overlaps(fromNanos, toNanos) ? segment.scanByTime(fromNanos, toNanos) : List.of());
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    int mappedSegmentCount() {
+        return (int) segments.stream().filter(JournalSegment::isMapped).count();
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        for (JournalSegment segment : segments) {
+            segment.close();
+        }
+    }
+
+    private List<BeerAudit> collect(Function<JournalSegment, List<BeerAudit>> reader) {
+        List<BeerAudit> result = new ArrayList<>();
+        segments.forEach(segment -> result.addAll(reader.apply(segment)));
+        // records are in append order; a stable sort only reorders audits stamped out of order by their publisher
+        result.sort(Comparator.comparing(BeerAudit::getAuditCreatedDate));
+        return result;
+    }
+
+    /**
+     * Deletes sealed segments holding nothing newer than the retention period. The active segment is always kept.
+     */
+    private void expire() {
+        if (retention.isZero() || retention.isNegative())
+            return;
+        long cutoff = JournalSegment.epochNanos(LocalDateTime.now().minus(retention));
+        for (JournalSegment segment : List.copyOf(segments.subList(0, segments.size() - 1))) {
+            if (segment.newestTime() >= cutoff)
+                continue;
+            segments.remove(segment);
+            try {
+                Files.deleteIfExists(segment.getPath());
+                log.info("Beer audit journal segment {} expired", segment.getPath().getFileName());
+            } catch (IOException e) {
+                log.warn("Could not delete expired beer audit journal segment {}: {}", segment.getPath(), e.getMessage());
+            }
+        }
+    }
+
+    private static void seal(JournalSegment segment) {
+        try {
+            segment.seal();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long sequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private JournalSegment roll() {
+        Path file = directory.resolve("%020d%s".formatted(nextSequence++, SEGMENT_SUFFIX));
+        try {
+            JournalSegment segment = new JournalSegment(file, segmentSize);
+            segments.add(segment);
+            log.info("Beer audit journal rolled to {}", file.getFileName());
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package guru.springframework.spring6restmvc.audit;
+
+import guru.springframework.spring6restmvc.domain.BeerAudit;
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * One memory-mapped, fixed-capacity file of the audit journal.
+ * <p>
+ * Layout: an 8 byte header ({@link #MAGIC}, format version), then records of {@code int length} followed by
+ * {@code length} bytes of payload; a zero length marks the end of written data. The payload is
+ * <pre>
+ * byte   null mask (bit per nullable column, see NULL_*)
+ * long   audit created, epoch second (UTC)   int nano
+ * long   audit id msb   long audit id lsb
+ * long   beer id msb    long beer id lsb
+ * short  version        byte beer style      int quantity on hand
+ * byte   price scale    short length + bytes of the unscaled price
+ * long/int created date, long/int update date
+ * short length + UTF-8 bytes for beer name, upc, principal name, audit event type (-1 for null)
+ * </pre>
+ * Alongside the file the segment keeps a sparse in-memory index, rebuilt by scanning on open: the audit time range,
+ * the set of beer ids present, and every {@link #CHECKPOINT_EVERY}th record's offset with the latest audit time
+ * seen before it, so time range reads can skip the part of the segment that is entirely older than the range.
+ * <p>
+ * Only the segment being appended to stays mapped. A full segment is {@link #seal() sealed}: its file is closed and
+ * its mapping released, and each later scan maps the written part read-only for the duration of that scan.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:11:45
+ */
+class JournalSegment {
+
+    static final int MAGIC = 0xBEE5A0D1;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int CHECKPOINT_EVERY = 64;
+
+    private static final int NULL_VERSION = 1;
+    private static final int NULL_STYLE = 1 << 1;
+    private static final int NULL_QUANTITY = 1 << 2;
+    private static final int NULL_PRICE = 1 << 3;
+    private static final int NULL_CREATED = 1 << 4;
+    private static final int NULL_UPDATED = 1 << 5;
+    private static final BeerStyle[] STYLES = BeerStyle.values();
+
+    @Getter
+    private final Path path;
+    private FileChannel channel;
+    // null once sealed
+    private volatile MappedByteBuffer buffer;
+
+    private final Set<UUID> beerIds = new HashSet<>();
+    private final List<long[]> checkpoints = new ArrayList<>();
+    private volatile int writePosition = HEADER_SIZE;
+    private int records;
+    private long minTime = Long.MAX_VALUE;
+    private long maxTime = Long.MIN_VALUE;
+
+    JournalSegment(Path path, int capacity) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacity, channel.size()));
+        if (buffer.getInt(0) == 0) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+        }
+        recover(buffer);
+    }
+
+    private JournalSegment(Path path, ByteBuffer written) throws IOException {
+        this.path = path;
+        recover(written);
+    }
+
+    /**
+     * Opens a segment that is no longer appended to: the index is rebuilt from a temporary read-only mapping and no
+     * file handle or mapping is kept.
+     */
+    static JournalSegment openSealed(Path path) throws IOException {
+        try (FileChannel readOnly = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new JournalSegment(path, readOnly.map(FileChannel.MapMode.READ_ONLY, 0, readOnly.size()));
+        }
+    }
+
+    /**
+     * Appends the audit, or returns false when it does not fit and the journal should roll to a new segment.
+     */
+    synchronized boolean append(BeerAudit audit) {
+        if (buffer == null)
+            throw new IllegalStateException("Journal segment " + path + " is sealed");
+        byte[] payload = encode(audit);
+        int position = writePosition;
+        // keep room for the zero terminator behind the record
+        if (position + Integer.BYTES + payload.length + Integer.BYTES > buffer.capacity())
+            return false;
+        buffer.put(position + Integer.BYTES, payload);
+        buffer.putInt(position, payload.length);
+        indexRecord(position, audit.getId(), epochNanos(audit.getAuditCreatedDate()));
+        writePosition = position + Integer.BYTES + payload.length;
+        return true;
+    }
+
+    void force() {
+        MappedByteBuffer current = buffer;
+        if (current != null)
+            current.force();
+    }
+
+    /**
+     * Stops appending: flushes, closes the file and drops the mapping, leaving only the in-memory index.
+     */
+    synchronized void seal() throws IOException {
+        if (buffer == null)
+            return;
+        buffer.force();
+        channel.close();
+        channel = null;
+        // the mapping itself is released once the last scan still holding a view of it is done
+        buffer = null;
+    }
+
+    void close() throws IOException {
+        seal();
+    }
+
+    boolean isMapped() {
+        return buffer != null;
+    }
+
+    synchronized long newestTime() {
+        return maxTime;
+    }
+
+    synchronized boolean mayContain(UUID beerId) {
+        return beerIds.contains(beerId);
+    }
+
+    synchronized boolean overlaps(long fromNanos, long toNanos) {
+        return records > 0 && minTime < toNanos && maxTime >= fromNanos;
+    }
+
+    List<BeerAudit> scan(int fromPosition, Predicate<BeerAudit> filter) {
+        int end = writePosition;
+        ByteBuffer view = view(end);
+        if (view == null)
+            return List.of();
+        List<BeerAudit> result = new ArrayList<>();
+        int position = fromPosition;
+        while (position < end) {
+            int length = view.getInt(position);
+            BeerAudit audit = decode(view.slice(position + Integer.BYTES, length));
+            if (filter.test(audit))
+                result.add(audit);
+            position += Integer.BYTES + length;
+        }
+        return result;
+    }
+
+    List<BeerAudit> scanByBeerId(UUID beerId) {
+        return scan(HEADER_SIZE, audit -> beerId.equals(audit.getId()));
+    }
+
+    List<BeerAudit> scanByTime(long fromNanos, long toNanos) {
+        return scan(seek(fromNanos), audit -> {
+            long time = epochNanos(audit.getAuditCreatedDate());
+            return time >= fromNanos && time < toNanos;
+        });
+    }
+
+    /**
+     * Offset of the last checkpoint before which every record is older than {@code fromNanos}.
+     */
+    private synchronized int seek(long fromNanos) {
+        int position = HEADER_SIZE;
+        for (long[] checkpoint : checkpoints) {
+            if (checkpoint[1] >= fromNanos)
+                break;
+            position = (int) checkpoint[0];
+        }
+        return position;
+    }
+
+    /**
+     * The mapped buffer of the active segment, or a fresh read-only mapping of the first {@code end} bytes of a sealed
+     * one; null if a sealed segment's file has already been removed by retention.
+     */
+    private ByteBuffer view(int end) {
+        MappedByteBuffer current = buffer;
+        if (current != null)
+            return current.duplicate();
+        try (FileChannel readOnly = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readOnly.map(FileChannel.MapMode.READ_ONLY, 0, end);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void recover(ByteBuffer data) throws IOException {
+        if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC)
+            throw new IOException("Not an audit journal segment: " + path);
+        int position = HEADER_SIZE;
+        while (position + Integer.BYTES <= data.capacity()) {
+            int length = data.getInt(position);
+            if (length <= 0 || position + Integer.BYTES + length > data.capacity())
+                break;
+            BeerAudit audit = decode(data.slice(position + Integer.BYTES, length));
+            indexRecord(position, audit.getId(), epochNanos(audit.getAuditCreatedDate()));
+            position += Integer.BYTES + length;
+        }
+        writePosition = position;
+    }
+
+    private void indexRecord(int position, UUID beerId, long time) {
+        if (records % CHECKPOINT_EVERY == 0)
+            checkpoints.add(new long[]{position, maxTime});
+        records++;
+        beerIds.add(beerId);
+        minTime = Math.min(minTime, time);
+        maxTime = Math.max(maxTime, time);
+    }
+
+    static long epochNanos(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+
+    static byte[] encode(BeerAudit audit) {
+        byte[] beerName = utf8(audit.getBeerName());
+        byte[] upc = utf8(audit.getUpc());
+        byte[] principalName = utf8(audit.getPrincipalName());
+        byte[] eventType = utf8(audit.getAuditEventType());
+        byte[] price = audit.getPrice() == null ? new byte[0] : audit.getPrice().unscaledValue().toByteArray();
+
+        int size = 1 + 12 + 32 + 2 + 1 + 4 + 1 + 2 + price.length + 12 + 12
+                + 4 * 2 + length(beerName) + length(upc) + length(principalName) + length(eventType);
+        ByteBuffer out = ByteBuffer.allocate(size);
+
+        int nulls = (audit.getVersion() == null ? NULL_VERSION : 0)
+                | (audit.getBeerStyle() == null ? NULL_STYLE : 0)
+                | (audit.getQuantityOnHand() == null ? NULL_QUANTITY : 0)
+                | (audit.getPrice() == null ? NULL_PRICE : 0)
+                | (audit.getCreatedDate() == null ? NULL_CREATED : 0)
+                | (audit.getUpdateDate() == null ? NULL_UPDATED : 0);
+        out.put((byte) nulls);
+        putTime(out, audit.getAuditCreatedDate());
+        putUuid(out, audit.getAuditId());
+        putUuid(out, audit.getId());
+        out.putShort(audit.getVersion() == null ? 0 : audit.getVersion().shortValue());
+        out.put(audit.getBeerStyle() == null ? 0 : (byte) audit.getBeerStyle().ordinal());
+        out.putInt(audit.getQuantityOnHand() == null ? 0 : audit.getQuantityOnHand());
+        out.put(audit.getPrice() == null ? 0 : (byte) audit.getPrice().scale());
+        out.putShort((short) price.length).put(price);
+        putTime(out, audit.getCreatedDate());
+        putTime(out, audit.getUpdateDate());
+        putString(out, beerName);
+        putString(out, upc);
+        putString(out, principalName);
+        putString(out, eventType);
+        return out.array();
+    }
+
+    static BeerAudit decode(ByteBuffer in) {
+        int nulls = in.get();
+        LocalDateTime auditCreatedDate = getTime(in);
+        UUID auditId = getUuid(in);
+        UUID beerId = getUuid(in);
+        short version = in.getShort();
+        byte style = in.get();
+        int quantityOnHand = in.getInt();
+        byte scale = in.get();
+        byte[] unscaled = new byte[in.getShort()];
+        in.get(unscaled);
+        LocalDateTime createdDate = getTime(in);
+        LocalDateTime updateDate = getTime(in);
+
+        return BeerAudit.builder()
+                .auditCreatedDate(auditCreatedDate)
+                .auditId(auditId)
+                .id(beerId)
+                .version((nulls & NULL_VERSION) != 0 ? null : (int) version)
+                .beerStyle((nulls & NULL_STYLE) != 0 ? null : STYLES[style])
+                .quantityOnHand((nulls & NULL_QUANTITY) != 0 ? null : quantityOnHand)
+                .price((nulls & NULL_PRICE) != 0 ? null : new BigDecimal(new BigInteger(unscaled), scale))
+                .createdDate((nulls & NULL_CREATED) != 0 ? null : createdDate)
+                .updateDate((nulls & NULL_UPDATED) != 0 ? null : updateDate)
+                .beerName(getString(in))
+                .upc(getString(in))
+                .principalName(getString(in))
+                .auditEventType(getString(in))
+                .build();
+    }
+
+    private static void putTime(ByteBuffer out, LocalDateTime dateTime) {
+        out.putLong(dateTime == null ? 0 : dateTime.toEpochSecond(ZoneOffset.UTC));
+        out.putInt(dateTime == null ? 0 : dateTime.getNano());
+    }
+
+    private static LocalDateTime getTime(ByteBuffer in) {
+        return LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+    }
+
+    private static void putUuid(ByteBuffer out, UUID uuid) {
+        out.putLong(uuid.getMostSignificantBits());
+        out.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putString(ByteBuffer out, byte[] bytes) {
+        if (bytes == null) {
+            out.putShort((short) -1);
+        } else {
+            out.putShort((short) bytes.length).put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        short length = in.getShort();
+        if (length < 0)
+            return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
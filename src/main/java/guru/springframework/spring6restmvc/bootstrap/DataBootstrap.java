@@ -1,5 +1,6 @@
 package guru.springframework.spring6restmvc.bootstrap;
 
+import guru.springframework.spring6restmvc.mappers.BeerCSVRecordMapper;
 import guru.springframework.spring6restmvc.model.BeerCSVRecord;
 import guru.springframework.spring6restmvcapi.enums.BeerStyle;
 import guru.springframework.spring6restmvcapi.model.*;
@@ -11,7 +12,6 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.RandomStringUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
@@ -22,6 +22,7 @@ import java.io.FileNotFoundException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * @author john
@@ -35,6 +36,7 @@ public class DataBootstrap implements CommandLineRunner {
     private final CustomerService customerService;
     private final BeerCSVService beerCSVService;
     private final BeerOrderService beerOrderService;
+    private final BeerCSVRecordMapper beerCSVRecordMapper;
 
 
     @Transactional
@@ -49,8 +51,7 @@ public class DataBootstrap implements CommandLineRunner {
 
     private void loadOrders() {
         if (beerOrderService.count() == 0) {
-            long count = customerService.count();
-            List<CustomerDTO> customers = customerService.listCustomers().subList(0, count>2?3:(int) count);
+            List<CustomerDTO> customers = customerService.listCustomers(1, 3).getContent();
             Page<BeerDTO> beers = beerService.listBeers(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
             Iterator<BeerDTO> beerIterator = beers.iterator();
             for (CustomerDTO customer : customers) {
@@ -72,29 +73,12 @@ public class DataBootstrap implements CommandLineRunner {
     private void loadCSVBeers() throws FileNotFoundException {
         if (beerService.count() < 10) {
             File csvFile = ResourceUtils.getFile("classpath:csvdata/beers.csv");
-            List<BeerCSVRecord> records = beerCSVService.convertCSV(csvFile);
-            for (BeerCSVRecord rec : records) {
-                beerService.save(BeerDTO.builder().beerName(StringUtils.abbreviate(rec.getBeer(), 50)).price(BigDecimal.TEN).quantityOnHand(rec.getCountX())
-                        .beerStyle(getBeerStyle(rec)).upc(String.valueOf(rec.getRow())).build());
+            try (Stream<BeerCSVRecord> records = beerCSVService.streamCSV(csvFile)) {
+                records.forEach(rec -> beerService.save(beerCSVRecordMapper.beerCSVRecordToBeerDTO(rec)));
             }
         }
     }
 
-    private BeerStyle getBeerStyle(BeerCSVRecord beerCSVRecord) {
-        return switch (beerCSVRecord.getStyle()) {
-            case "American Pale Lager" -> BeerStyle.LAGER;
-            case "American Pale Ale (APA)", "American Black Ale", "Belgian Dark Ale", "American Blonde Ale" ->
-                    BeerStyle.ALE;
-            case "American IPA", "American Double / Imperial IPA", "Belgian IPA" -> BeerStyle.IPA;
-            case "American Porter" -> BeerStyle.PORTER;
-            case "Oatmeal Stout", "American Stout" -> BeerStyle.STOUT;
-            case "Saison / Farmhouse Ale" -> BeerStyle.SAISON;
-            case "Fruit / Vegetable Beer", "Winter Warmer", "Berliner Weissbier" -> BeerStyle.WHEAT;
-            case "English Pale Ale" -> BeerStyle.PALE_ALE;
-            default -> BeerStyle.PILSNER;
-        };
-    }
-
     private void loadCustomers() {
         if (customerService.count() > 0){
             // Already loaded, no need to load again
@@ -112,7 +96,7 @@ public class DataBootstrap implements CommandLineRunner {
                 .lastModifiedDate(LocalDateTime.now()).build();
         customerService.save(customer1);
         customerService.save(customer2);
-        log.info("Customers loaded: {}", customerService.listCustomers().size());
+        log.info("Customers loaded: {}", customerService.count());
     }
 
     private void loadBeers() {
@@ -0,0 +1,151 @@
+package guru.springframework.spring6restmvc.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Beer listings cached in {@code beerListCache}, each entry tagged with the filter and ordering window it covers so
+ * that a write only evicts the listings that could contain the beer's old or new state instead of clearing them all.
+ * The window is stored next to the listing in the same {@link Entry}, so it expires and is evicted with it.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:03:20
+ */
+@Slf4j
+@Component
+public class BeerListCache {
+
+    public static final String CACHE_NAME = "beerListCache";
+
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    public BeerListCache(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(BeerListKey key, Supplier<T> loader, Function<T, BeerListWindow> windowOf) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return loader.get();
+        }
+        Entry<T> cached = cache.get(key, Entry.class);
+        if (cached != null) {
+            count("hits", key);
+            return cached.value();
+        }
+        count("misses", key);
+        T value = loader.get();
+        cache.put(key, new Entry<>(value, windowOf.apply(value)));
+        return value;
+    }
+
+    /**
+     * Evict the listings a write could have changed, once the surrounding transaction commits so that a listing
+     * reloaded in the meantime cannot bring the old state back. {@code before} is null for an insert, {@code after}
+     * for a delete.
+     */
+    public void invalidate(BeerState before, BeerState after) {
+        afterCommit(() -> evictAffected(before, after));
+    }
+
+    public void clear() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void evictAffected(BeerState before, BeerState after) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        Map<?, ?> entries = entries(cache);
+        if (entries == null) {
+            // a store that cannot be walked; drop every listing
+            cache.clear();
+            return;
+        }
+        entries.forEach((key, value) -> {
+            if (key instanceof BeerListKey listKey && value instanceof Entry<?> entry
+                    && affects(listKey, entry.window(), before, after)) {
+                cache.evict(listKey);
+                count("evictions", listKey);
+            }
+        });
+    }
+
+    // walks the native store directly so the scan is not recorded as hits or misses in the cache statistics
+    private static Map<?, ?> entries(Cache cache) {
+        return switch (cache.getNativeCache()) {
+            case com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine -> caffeine.asMap();
+            case Map<?, ?> map -> map;
+            default -> null;
+        };
+    }
+
+    static boolean affects(BeerListKey key, BeerListWindow window, BeerState before, BeerState after) {
+        boolean coversBefore = key.covers(before);
+        boolean coversAfter = key.covers(after);
+        if (!coversBefore && !coversAfter) {
+            return false;
+        }
+        if (window == null
+                || coversBefore && before.getBeerName() == null
+                || coversAfter && after.getBeerName() == null) {
+            return true;
+        }
+        boolean moved = !(coversBefore && coversAfter && Objects.equals(before.getBeerName(), after.getBeerName()));
+        if (!moved) {
+            // edited in place: only the window showing the beer changes
+            return window.contains(after.getBeerName());
+        }
+        if (window.isWithTotals()) {
+            return true;
+        }
+        // an insert or removal shifts every later offset window, but only the window it lands in for keyset ones
+        Predicate<String> touched = key.getMode() == BeerListKey.Mode.CURSOR ? window::contains : window::reachesPast;
+        return coversBefore && touched.test(before.getBeerName()) || coversAfter && touched.test(after.getBeerName());
+    }
+
+    private void count(String outcome, BeerListKey key) {
+        meterRegistry.counter("beer.list.cache." + outcome,
+                "mode", key.getMode().name(),
+                "style", key.getBeerStyle() != null ? key.getBeerStyle().name() : "ANY",
+                "nameFilter", String.valueOf(key.getBeerName() != null)).increment();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * A cached listing together with the window of the ordering it covers.
+     */
+    public record Entry<T>(T value, BeerListWindow window) {
+    }
+}
@@ -0,0 +1,48 @@
+package guru.springframework.spring6restmvc.cache;
+
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Key of a {@code beerListCache} entry. Besides identifying the entry it is the filter tag used to decide
+ * whether a write can affect it.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:03:05
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor(staticName = "of")
+public class BeerListKey {
+
+    public enum Mode { PAGE, SLICE, CURSOR }
+
+    private final Mode mode;
+    private final String beerName;
+    private final BeerStyle beerStyle;
+    private final Integer pageNumber;
+    private final Integer pageSize;
+    private final String after;
+
+    /**
+     * Mirrors the {@code like %name%} / {@code beerStyle =} predicates of the listing queries. A fragment holding
+     * SQL wildcards is treated as matching everything.
+     */
+    public boolean covers(BeerState state) {
+        if (state == null) {
+            return false;
+        }
+        if (beerStyle != null && beerStyle != state.getBeerStyle()) {
+            return false;
+        }
+        if (beerName == null || state.getBeerName() == null || beerName.contains("%") || beerName.contains("_")) {
+            return true;
+        }
+        return state.getBeerName().toLowerCase().contains(beerName.toLowerCase());
+    }
+}
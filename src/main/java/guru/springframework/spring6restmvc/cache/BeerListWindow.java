@@ -0,0 +1,39 @@
+package guru.springframework.spring6restmvc.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The slice of the (beerName, id) ordering that a cached listing covers.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:03:11
+ */
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "of")
+public class BeerListWindow {
+
+    /** first name shown, or the cursor position for keyset windows; null means "from the start" */
+    private final String lowerName;
+    /** last name shown; null for an empty window */
+    private final String upperName;
+    private final boolean lastWindow;
+    /** the entry reports total counts, which any membership change invalidates */
+    private final boolean withTotals;
+
+    boolean contains(String name) {
+        return (lowerName == null || atMost(lowerName, name)) && (lastWindow || upperName != null && atMost(name, upperName));
+    }
+
+    boolean reachesPast(String name) {
+        return lastWindow || upperName == null || atMost(name, upperName);
+    }
+
+    // the database collation may or may not be case sensitive, so accept either ordering
+    private static boolean atMost(String a, String b) {
+        return a.compareToIgnoreCase(b) <= 0 || a.compareTo(b) <= 0;
+    }
+}
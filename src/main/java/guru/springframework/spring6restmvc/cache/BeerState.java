@@ -0,0 +1,27 @@
+package guru.springframework.spring6restmvc.cache;
+
+import guru.springframework.spring6restmvc.domain.Beer;
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The listing-relevant columns of a beer, captured before or after a write.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:03:08
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor(staticName = "of")
+public class BeerState {
+
+    private String beerName;
+    private BeerStyle beerStyle;
+
+    public static BeerState of(Beer beer) {
+        return beer == null ? null : new BeerState(beer.getBeerName(), beer.getBeerStyle());
+    }
+}
@@ -0,0 +1,128 @@
+package guru.springframework.spring6restmvc.cache;
+
+import guru.springframework.spring6restmvc.config.KafkaConfig;
+import guru.springframework.spring6restmvc.events.CacheInvalidationEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts local cache invalidations to the other replicas. Invalidations are queued once the surrounding
+ * transaction commits (so a peer never reloads the pre-commit row) and flushed as one Kafka record per interval, or
+ * as soon as a batch fills up. Sends happen on the flush thread, so a slow broker never holds up a request.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:06:10
+ */
+@Slf4j
+@Component
+public class CacheInvalidationPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService flusher;
+
+    @Getter
+    private final String nodeId;
+
+    private CacheInvalidationEvent pending;
+
+    public CacheInvalidationPublisher(KafkaTemplate<String, Object> kafkaTemplate,
+                                      @Value("${app.node-id:}") String nodeId,
+                                      @Value("${app.cache.invalidation.flush-interval:100ms}") Duration flushInterval,
+                                      @Value("${app.cache.invalidation.max-batch-size:500}") int maxBatchSize) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : UUID.randomUUID().toString();
+        this.maxBatchSize = maxBatchSize;
+        this.pending = emptyBatch();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("cache-invalidation").daemon().factory());
+        this.flusher.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Cache invalidations for this node are tagged {}", this.nodeId);
+    }
+
+    public void evict(String cacheName, UUID key) {
+        afterCommit(() -> enqueue(batch -> batch.getEvictedKeys().computeIfAbsent(cacheName, name -> new HashSet<>()).add(key)));
+    }
+
+    public void clear(String cacheName) {
+        afterCommit(() -> enqueue(batch -> batch.getClearedCaches().add(cacheName)));
+    }
+
+    public void beerListChanged(BeerState before, BeerState after) {
+        afterCommit(() -> enqueue(batch -> batch.getBeerListChanges().add(new CacheInvalidationEvent.BeerListChange(before, after))));
+    }
+
+    public void beerNameChanged(UUID beerId) {
+        afterCommit(() -> enqueue(batch -> batch.getBeerNameChanges().add(beerId)));
+    }
+
+    /**
+     * Sends whatever is queued. Runs on the flush thread; also called on shutdown so a closing node does not
+     * swallow its last invalidations.
+     */
+    public void flush() {
+        CacheInvalidationEvent batch;
+        synchronized (this) {
+            if (pending.isEmpty())
+                return;
+            batch = pending;
+            pending = emptyBatch();
+        }
+        try {
+            kafkaTemplate.send(KafkaConfig.CACHE_INVALIDATION_TOPIC, nodeId, batch).whenComplete((result, ex) -> {
+                if (ex != null)
+                    log.warn("Failed to publish {} cache invalidations: {}", batch.size(), ex.getMessage());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish {} cache invalidations: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        flush();
+    }
+
+    private void enqueue(Consumer<CacheInvalidationEvent> change) {
+        boolean full;
+        synchronized (this) {
+            change.accept(pending);
+            full = pending.size() >= maxBatchSize;
+        }
+        if (full && !flusher.isShutdown())
+            flusher.execute(this::flush);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private CacheInvalidationEvent emptyBatch() {
+        return CacheInvalidationEvent.builder().nodeId(nodeId).build();
+    }
+}
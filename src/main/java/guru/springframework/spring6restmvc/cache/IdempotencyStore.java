@@ -0,0 +1,113 @@
+package guru.springframework.spring6restmvc.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.springframework.spring6restmvc.exceptions.IdempotencyKeyConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Results of requests sent with an {@code Idempotency-Key}, kept for {@code ttl} in a bounded Caffeine cache. The
+ * first request with a key runs; repeats get its result back without running again, and a repeat that arrives while
+ * the first is still running waits for it. A key reused with a different request body is rejected. Failed requests
+ * are forgotten, so the client can retry them. Keys are held per caller, so one client cannot replay or block another
+ * client's request by guessing its key.
+ * <p>
+ * The store is per node: a retry routed to another replica is not recognised.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:18:10
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private final ConcurrentMap<Key, Entry> entries;
+    private final Duration waitTimeout;
+    private final Counter executed;
+    private final Counter replayed;
+
+    public IdempotencyStore(MeterRegistry meterRegistry,
+                            @Value("${app.idempotency.maximum-size:10000}") long maximumSize,
+                            @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${app.idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        Cache<Key, Entry> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.entries = cache.asMap();
+        this.waitTimeout = waitTimeout;
+        this.executed = meterRegistry.counter("idempotency.requests", "outcome", "executed");
+        this.replayed = meterRegistry.counter("idempotency.requests", "outcome", "replayed");
+        meterRegistry.gauge("idempotency.keys", entries, ConcurrentMap::size);
+    }
+
+    /**
+     * Runs {@code action} once per {@code key}, or returns the result of the run already recorded for it.
+     *
+     * @param scope     what the key belongs to, e.g. the endpoint, so equal keys on different operations do not collide
+     * @param principal the authenticated caller (the JWT subject), or null for anonymous requests
+     * @param request   the request the key was sent with; a repeat must carry an equal one
+     * @return the result, and whether it was replayed rather than produced by this call
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(String scope, String principal, String key, Object request, Supplier<T> action) {
+        Key scopedKey = new Key(scope, principal, key);
+        Entry entry = new Entry(request, new CompletableFuture<>());
+        Entry existing = entries.putIfAbsent(scopedKey, entry);
+        if (existing != null) {
+            if (!Objects.equals(existing.request(), request))
+                throw new IdempotencyKeyConflictException("Idempotency-Key " + key + " was already used for a different request");
+            replayed.increment();
+            return new Result<>((T) await(key, existing.result()), true);
+        }
+
+        executed.increment();
+        try {
+            T value = action.get();
+            entry.result().complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException e) {
+            entries.remove(scopedKey, entry);
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(String key, CompletableFuture<Object> result) {
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyConflictException("Request with Idempotency-Key " + key + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyConflictException("Interrupted waiting for request with Idempotency-Key " + key);
+        }
+    }
+
+    public record Result<T>(T value, boolean replayed) {
+    }
+
+    private record Key(String scope, String principal, String key) {
+    }
+
+    private record Entry(Object request, CompletableFuture<Object> result) {
+    }
+}
@@ -0,0 +1,96 @@
+package guru.springframework.spring6restmvc.config;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.springframework.spring6restmvc.cache.BeerListCache;
+import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.mappers.CustomerMapper;
+import guru.springframework.spring6restmvc.model.CursorPage;
+import guru.springframework.spring6restmvc.repository.BeerRepository;
+import guru.springframework.spring6restmvc.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies the per-cache policies from {@link CachePolicyProperties} on top of the Caffeine cache manager Spring Boot
+ * builds from {@code spring.cache.*}. Statistics are recorded so the caches show up under the {@code cache.*} meters.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:05:18
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(CachePolicyProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> cachePolicyCustomizer(CachePolicyProperties properties,
+                                                                              BeerRepository beerRepository, BeerMapper beerMapper,
+                                                                              CustomerRepository customerRepository, CustomerMapper customerMapper) {
+        // single-entry caches can be refreshed ahead of expiry because the value can be rebuilt from the key alone
+        Map<String, CacheLoader<Object, Object>> loaders = Map.of(
+                "beerCache", key -> beerRepository.findById((UUID) key).map(beerMapper::beerToBeerDTO).orElse(null),
+                "customerCache", key -> customerRepository.findById((UUID) key).map(customerMapper::customerToCustomerDTO).orElse(null));
+
+        return cacheManager -> properties.getPolicies().forEach((name, policy) -> {
+            Caffeine<Object, Object> builder = caffeine(name, policy);
+            CacheLoader<Object, Object> loader = loaders.get(name);
+            if (policy.getRefreshAfterWrite() != null && loader != null) {
+                builder.refreshAfterWrite(policy.getRefreshAfterWrite());
+                cacheManager.registerCustomCache(name, builder.build(loader));
+            } else {
+                if (policy.getRefreshAfterWrite() != null) {
+                    log.warn("Cache {} has no loader, ignoring refresh-after-write", name);
+                }
+                cacheManager.registerCustomCache(name, builder.build());
+            }
+            log.info("Registered cache {} with policy {}", name, policy);
+        });
+    }
+
+    static Caffeine<Object, Object> caffeine(String name, CachePolicyProperties.Policy policy) {
+        if (policy.getMaximumSize() != null && policy.getMaximumWeight() != null) {
+            throw new IllegalStateException("Cache " + name + " can be bounded by maximum-size or maximum-weight, not both");
+        }
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (policy.getMaximumSize() != null) {
+            builder.maximumSize(policy.getMaximumSize());
+        }
+        if (policy.getMaximumWeight() != null) {
+            builder.maximumWeight(policy.getMaximumWeight()).weigher((key, value) -> weigh(value));
+        }
+        if (policy.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(policy.getExpireAfterWrite());
+        }
+        if (policy.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(policy.getExpireAfterAccess());
+        }
+        if (policy.isRecordStats()) {
+            builder.recordStats();
+        }
+        return builder;
+    }
+
+    /**
+     * Weight of a cached value in list elements, so a cache of 100-row pages fills up sooner than one of 10-row pages.
+     */
+    static int weigh(Object value) {
+        return Math.max(1, switch (value) {
+            case BeerListCache.Entry<?> entry -> weigh(entry.value());
+            case Slice<?> slice -> slice.getNumberOfElements();
+            case CursorPage<?> page -> page.getContent().size();
+            case Collection<?> collection -> collection.size();
+            case null, default -> 1;
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package guru.springframework.spring6restmvc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-cache Caffeine policies, e.g. {@code app.cache.policies.beerListCache.maximum-weight=20000}. Caches without a
+ * policy fall back to {@code spring.cache.caffeine.spec}.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:05:10
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class CachePolicyProperties {
+
+    private Map<String, Policy> policies = new LinkedHashMap<>();
+
+    @Data
+    public static class Policy {
+        private Long maximumSize;
+        /** total number of list elements held, for caches of pages and lists */
+        private Long maximumWeight;
+        private Duration expireAfterWrite;
+        private Duration expireAfterAccess;
+        /** only honoured for caches that have a loader registered in {@link CacheConfig} */
+        private Duration refreshAfterWrite;
+        private boolean recordStats = true;
+    }
+}
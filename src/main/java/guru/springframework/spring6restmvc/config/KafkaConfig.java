@@ -12,4 +12,6 @@ public class KafkaConfig {
     public static final String DRINK_REQUEST_COLD_TOPIC = "drink.request.cold";
     public static final String DRINK_REQUEST_COOL_TOPIC = "drink.request.cool";
     public static final String DRINK_PREPARED_TOPIC = "drink.prepared";
+
+    public static final String CACHE_INVALIDATION_TOPIC = "cache.invalidation";
 }
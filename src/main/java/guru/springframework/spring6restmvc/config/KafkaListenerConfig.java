@@ -0,0 +1,44 @@
+package guru.springframework.spring6restmvc.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.Properties;
+
+/**
+ * Listener container factories beyond the record-at-a-time default Spring Boot provides.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:14:05
+ */
+@Configuration
+public class KafkaListenerConfig {
+
+    public static final String BATCH_LISTENER_FACTORY = "batchKafkaListenerContainerFactory";
+
+    /**
+     * Hands a whole poll to the listener. Offsets are committed once the listener returns, so a listener that throws
+     * gets the same batch again.
+     */
+    @Bean(BATCH_LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer, ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${app.kafka.batch.max-poll-records:500}") int maxPollRecords) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+        Properties consumerProperties = new Properties();
+        consumerProperties.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords));
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+        return factory;
+    }
+}
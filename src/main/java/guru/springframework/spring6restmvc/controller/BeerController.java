@@ -1,6 +1,7 @@
 package guru.springframework.spring6restmvc.controller;
 
 import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.model.CursorPage;
 import guru.springframework.spring6restmvcapi.model.BeerDTO;
 import guru.springframework.spring6restmvcapi.model.BeerSearchCriteria;
 import guru.springframework.spring6restmvcapi.enums.BeerStyle;
@@ -8,6 +9,7 @@ import guru.springframework.spring6restmvc.services.BeerService;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -49,6 +51,50 @@ public class BeerController {
         return result;
     }
 
+    /**
+     * Count-free mode of the listing, selected with {@code slice=true}. Reports {@code hasNext} instead of exact
+     * totals; {@code approximateTotalElements} comes from a separately cached count.
+     */
+    @GetMapping(value = {"/", ""}, params = "slice=true")
+    public Map<String, Object> listBeerSlice(@RequestParam(required = false) String beerName,
+                                             @RequestParam(required = false) BeerStyle beerStyle,
+                                             @RequestParam(required = false) Integer pageNumber,
+                                             @RequestParam(required = false) Integer pageSize) {
+        log.debug("List beer slice - in controller");
+        Map<String, Object> result = new HashMap<>();
+        Slice<BeerDTO> slice = beerService.listBeerSlice(Optional.ofNullable(beerName), Optional.ofNullable(beerStyle), Optional.ofNullable(pageNumber), Optional.ofNullable(pageSize));
+
+        result.put("approximateTotalElements", beerService.countBeers(Optional.ofNullable(beerName), Optional.ofNullable(beerStyle)));
+        result.put("pageNumber", slice.getNumber());
+        result.put("pageSize", slice.getSize());
+        result.put("sorted", slice.getSort().isSorted());
+        result.put("first", slice.isFirst());
+        result.put("last", slice.isLast());
+        result.put("hasNext", slice.hasNext());
+        result.put("content", slice.getContent());
+        return result;
+    }
+
+    /**
+     * Keyset mode of the listing, selected by the presence of the {@code after} parameter. Start with an empty
+     * {@code after=} and pass back {@code nextCursor} until it comes back null.
+     */
+    @GetMapping(value = {"/", ""}, params = "after")
+    public Map<String, Object> listBeersAfter(@RequestParam(required = false) String beerName,
+                                              @RequestParam(required = false) BeerStyle beerStyle,
+                                              @RequestParam(defaultValue = "") String after,
+                                              @RequestParam(required = false) Integer pageSize) {
+        log.debug("List beers after cursor - in controller");
+        Map<String, Object> result = new HashMap<>();
+        CursorPage<BeerDTO> page = beerService.listBeersAfter(Optional.ofNullable(beerName), Optional.ofNullable(beerStyle), Optional.of(after), Optional.ofNullable(pageSize));
+
+        result.put("pageSize", page.getPageSize());
+        result.put("nextCursor", page.getNextCursor());
+        result.put("last", !page.hasNext());
+        result.put("content", page.getContent());
+        return result;
+    }
+
     @PostMapping({"/search"})
     public List<BeerDTO> saerchBeers(@RequestBody BeerSearchCriteria criteria) {
         log.info("Search beers - in controller");
@@ -0,0 +1,46 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.model.BeerExportFormat;
+import guru.springframework.spring6restmvc.services.BeerExportService;
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Optional;
+
+/**
+ * Bulk catalogue export for sync jobs: one streamed response instead of paging through {@code GET /api/v1/beer}.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:08:58
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(BeerExportController.PATH)
+public class BeerExportController {
+    public static final String PATH = BeerController.PATH + "/export";
+    private final BeerExportService beerExportService;
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportBeers(@RequestParam(required = false) String beerName,
+                                                             @RequestParam(required = false) BeerStyle beerStyle,
+                                                             @RequestParam(defaultValue = "NDJSON") BeerExportFormat format) {
+        log.info("Export beers as {} - in controller", format);
+        StreamingResponseBody body = out -> beerExportService.exportBeers(Optional.ofNullable(beerName),
+                Optional.ofNullable(beerStyle), format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"beers." + format.getFileExtension() + "\"")
+                .body(body);
+    }
+}
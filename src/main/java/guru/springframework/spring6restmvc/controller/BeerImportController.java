@@ -0,0 +1,51 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.model.BeerImportJob;
+import guru.springframework.spring6restmvc.services.BeerImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Bulk CSV import. The upload is accepted straight away and processed in the background; clients poll the job.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:09:55
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(BeerImportController.PATH)
+public class BeerImportController {
+    public static final String PATH = BeerController.PATH + "/import";
+    public static final String PATH_ID = PATH + "/{jobId}";
+    private final BeerImportService beerImportService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BeerImportJob> importBeers(@RequestParam("file") MultipartFile file) throws IOException {
+        log.info("Import beers from {} - in controller", file.getOriginalFilename());
+        BeerImportJob job = beerImportService.startImport(file);
+        return ResponseEntity.accepted()
+                .location(UriComponentsBuilder.fromPath(PATH_ID).build(job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    public BeerImportJob getImportJob(@PathVariable UUID jobId) {
+        return beerImportService.getJob(jobId).orElseThrow(NotFoundException::new);
+    }
+}
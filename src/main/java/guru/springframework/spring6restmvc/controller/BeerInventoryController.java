@@ -0,0 +1,37 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.inventory.InventoryLedger;
+import guru.springframework.spring6restmvc.model.InventoryAdjustment;
+import guru.springframework.spring6restmvc.model.InventoryLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * Stock movements for one beer. Answers 409 when a withdrawal is larger than the stock on hand.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:16:30
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(BeerInventoryController.PATH)
+public class BeerInventoryController {
+    public static final String PATH = BeerController.PATH + "/{beerId}/inventory/adjustments";
+    private final InventoryLedger inventoryLedger;
+
+    @PostMapping
+    public InventoryLevel adjust(@PathVariable UUID beerId, @Validated @RequestBody InventoryAdjustment adjustment) {
+        log.debug("Adjust inventory of beer {} by {} - in controller", beerId, adjustment.getDelta());
+        return inventoryLedger.adjust(beerId, adjustment.getDelta());
+    }
+}
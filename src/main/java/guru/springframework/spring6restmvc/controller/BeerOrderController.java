@@ -1,17 +1,29 @@
 package guru.springframework.spring6restmvc.controller;
 
+import guru.springframework.spring6restmvc.cache.IdempotencyStore;
 import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.intake.BeerOrderIntake;
+import guru.springframework.spring6restmvc.model.BeerOrderIntakeTicket;
 import guru.springframework.spring6restmvcapi.model.BeerOrderCreateDTO;
 import guru.springframework.spring6restmvcapi.model.BeerOrderDTO;
 import guru.springframework.spring6restmvc.services.BeerOrderService;
+import guru.springframework.spring6restmvc.streams.OrderLineEventHub;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.security.Principal;
 import java.util.Map;
 import java.util.UUID;
 
@@ -26,7 +38,14 @@ import java.util.UUID;
 @RequestMapping(BeerOrderController.PATH)
 public class BeerOrderController {
     public static final String PATH = "/api/v1/beer_order";
+    public static final String INTAKE_PATH = PATH + "/intake";
+    public static final String INTAKE_PATH_ID = INTAKE_PATH + "/{ticketId}";
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
     private final BeerOrderService beerOrderService;
+    private final IdempotencyStore idempotencyStore;
+    private final OrderLineEventHub orderLineEventHub;
+    private final BeerOrderIntake beerOrderIntake;
 
     @GetMapping({"/", ""})
     public Map<String, Object> listBeerOrders(@RequestParam(required = false) Integer pageNumber,
@@ -38,22 +57,70 @@ public class BeerOrderController {
                 "first", page.isFirst(), "last", page.isLast(), "totalPages", page.getTotalPages(), "totalElements", page.getTotalElements());
     }
 
+    @GetMapping(value = {"/", ""}, params = "slice=true")
+    public Map<String, Object> listBeerOrderSlice(@RequestParam(required = false) Integer pageNumber,
+                                                  @RequestParam(required = false) Integer pageSize) {
+        log.info("List beer order slice - in controller");
+        Slice<BeerOrderDTO> slice = beerOrderService.listOrderSlice(pageNumber, pageSize);
+        return Map.of("content", slice.getContent(),
+                "pageNumber", slice.getNumber(), "pageSize", slice.getSize(), "sort", slice.getSort().isSorted(),
+                "first", slice.isFirst(), "last", slice.isLast(), "hasNext", slice.hasNext(),
+                "approximateTotalElements", beerOrderService.approximateCount());
+    }
+
     @GetMapping("/{orderId}")
     public BeerOrderDTO getBeerOrderById(@PathVariable UUID orderId) {
         log.info("Get beer order by id - in controller");
         return beerOrderService.getOrderById(orderId).orElseThrow(NotFoundException::new);
     }
 
+    @GetMapping(value = "/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBeerOrderEvents(@PathVariable UUID orderId) {
+        log.info("Stream beer order events - in controller");
+        if (!beerOrderService.orderExists(orderId))
+            throw new NotFoundException("Beer order not found with id: " + orderId);
+        return orderLineEventHub.subscribeOrder(orderId);
+    }
+
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping({"/", ""})
-    public BeerOrderDTO createBeerOrder(@Validated @RequestBody BeerOrderCreateDTO beerOrderDTO, HttpServletResponse response) {
+    public BeerOrderDTO createBeerOrder(@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                        @Validated @RequestBody BeerOrderCreateDTO beerOrderDTO, Principal principal,
+                                        HttpServletResponse response) {
         log.info("Create beer order - in controller");
-        BeerOrderDTO order = beerOrderService.createOrder(beerOrderDTO);
+        BeerOrderDTO order;
+        if (StringUtils.hasText(idempotencyKey)) {
+            IdempotencyStore.Result<BeerOrderDTO> result = idempotencyStore.execute(PATH,
+                    principal != null ? principal.getName() : null, idempotencyKey, beerOrderDTO,
+                    () -> beerOrderService.createOrder(beerOrderDTO));
+            order = result.value();
+            if (result.replayed())
+                response.addHeader(IDEMPOTENT_REPLAYED, "true");
+        } else {
+            order = beerOrderService.createOrder(beerOrderDTO);
+        }
         response.addHeader("Location", PATH + "/" + order.getId().toString());
         log.info("Created {}", order);
         return order;
     }
 
+    @PostMapping(value = {"/", ""}, params = "async=true")
+    public ResponseEntity<BeerOrderIntakeTicket> submitBeerOrder(@Validated @RequestBody BeerOrderCreateDTO beerOrderDTO) {
+        log.info("Submit beer order - in controller");
+        return beerOrderIntake.submit(beerOrderDTO)
+                .map(ticket -> ResponseEntity.accepted()
+                        .location(UriComponentsBuilder.fromPath(INTAKE_PATH_ID).build(ticket.getId()))
+                        .body(ticket))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(beerOrderIntake.retryAfterSeconds()))
+                        .build());
+    }
+
+    @GetMapping("/intake/{ticketId}")
+    public BeerOrderIntakeTicket getIntakeTicket(@PathVariable UUID ticketId) {
+        return beerOrderIntake.getTicket(ticketId).orElseThrow(NotFoundException::new);
+    }
+
     @ResponseStatus(HttpStatus.OK)
     @PutMapping("/{orderId}")
     public BeerOrderDTO updateBeerOrder(@PathVariable UUID orderId, @Validated @RequestBody BeerOrderDTO beerOrderDTO) {
@@ -5,14 +5,23 @@ package guru.springframework.spring6restmvc.controller;
  * @since 02/07/2024
  */
 import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.model.CursorPage;
+import guru.springframework.spring6restmvc.services.BeerOrderService;
+import guru.springframework.spring6restmvcapi.model.BeerOrderDTO;
 import guru.springframework.spring6restmvcapi.model.CustomerDTO;
 import guru.springframework.spring6restmvc.services.CustomerService;
+import guru.springframework.spring6restmvc.streams.OrderLineEventHub;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -22,15 +31,64 @@ public class CustomerController {
 
     public static final String PATH = "/api/v1/customer";
     private final CustomerService customerService;
+    private final BeerOrderService beerOrderService;
+    private final OrderLineEventHub orderLineEventHub;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, BeerOrderService beerOrderService,
+                              OrderLineEventHub orderLineEventHub) {
         this.customerService = customerService;
+        this.beerOrderService = beerOrderService;
+        this.orderLineEventHub = orderLineEventHub;
     }
 
     @GetMapping({"", "/"})
-    public List<CustomerDTO> listCustomers() {
+    public Map<String, Object> listCustomers(@RequestParam(required = false) Integer pageNumber,
+                                             @RequestParam(required = false) Integer pageSize) {
         log.debug("List customers");
-        return customerService.listCustomers();
+        return pageBody(customerService.listCustomers(pageNumber, pageSize));
+    }
+
+    @GetMapping("/{customerId}/orders")
+    public Map<String, Object> listCustomerOrders(@PathVariable UUID customerId,
+                                                  @RequestParam(required = false) Integer pageNumber,
+                                                  @RequestParam(required = false) Integer pageSize) {
+        log.debug("List orders of customer. Id: " + customerId);
+        return pageBody(beerOrderService.listOrdersByCustomer(customerId, pageNumber, pageSize)
+                .orElseThrow(NotFoundException::new));
+    }
+
+    /**
+     * Keyset mode of the order history, newest first, selected by the presence of the {@code after} parameter. Start
+     * with an empty {@code after=} and pass back {@code nextCursor} until it comes back null.
+     */
+    @GetMapping(value = "/{customerId}/orders", params = "after")
+    public Map<String, Object> listCustomerOrdersAfter(@PathVariable UUID customerId,
+                                                       @RequestParam(defaultValue = "") String after,
+                                                       @RequestParam(required = false) Integer pageSize) {
+        log.debug("List orders of customer after cursor. Id: " + customerId);
+        CursorPage<BeerOrderDTO> page = beerOrderService.listOrdersByCustomerAfter(customerId, Optional.of(after),
+                Optional.ofNullable(pageSize)).orElseThrow(NotFoundException::new);
+        // nextCursor is null on the last window, which Map.of does not allow
+        Map<String, Object> result = new HashMap<>();
+        result.put("pageSize", page.getPageSize());
+        result.put("nextCursor", page.getNextCursor());
+        result.put("last", !page.hasNext());
+        result.put("content", page.getContent());
+        return result;
+    }
+
+    @GetMapping(value = "/{customerId}/orders/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCustomerOrderEvents(@PathVariable UUID customerId) {
+        log.debug("Stream order events of customer. Id: " + customerId);
+        if (!customerService.existsById(customerId))
+            throw new NotFoundException("Customer not found with id: " + customerId);
+        return orderLineEventHub.subscribeCustomer(customerId);
+    }
+
+    private static Map<String, Object> pageBody(Page<?> page) {
+        return Map.of("content", page.getContent(),
+                "pageNumber", page.getNumber(), "pageSize", page.getSize(), "sorted", page.getSort().isSorted(),
+                "first", page.isFirst(), "last", page.isLast(), "totalPages", page.getTotalPages(), "totalElements", page.getTotalElements());
     }
 
     @GetMapping("/{customerId}")
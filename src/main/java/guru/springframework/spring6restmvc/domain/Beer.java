@@ -6,7 +6,9 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.type.SqlTypes;
@@ -25,10 +27,12 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode
-@ToString
+@EqualsAndHashCode(exclude = "categories")
+@ToString(exclude = "categories")
 @Builder
 @Entity
+// only changed columns are written, so an update that leaves the stock alone cannot overwrite deltas InventoryLedger flushed
+@DynamicUpdate
 public class Beer {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -50,13 +54,17 @@ public class Beer {
 
     @NotBlank
     private String upc;
+
+    // stock movements go through InventoryLedger, which writes relative updates behind the version's back
     private Integer quantityOnHand;
 
     @NotNull
     private BigDecimal price;
 
+    // none of the DTO mappings read categories; when something does, whole pages of beers are initialised per query
     @Builder.Default
-    @ManyToMany(fetch = FetchType.EAGER)
+    @BatchSize(size = 50)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name= "beer_category", joinColumns = @JoinColumn(name = "beer_id"), inverseJoinColumns = @JoinColumn(name = "category_id"))
     private Set<Category> categories = new HashSet<>();
 
@@ -3,6 +3,7 @@ package guru.springframework.spring6restmvc.domain;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -49,7 +50,7 @@ public class BeerOrder {
     private Integer version;
 
     @CreationTimestamp
-    @Column(updatable = false)
+    @Column(updatable = false, nullable = false)
     private LocalDateTime createdDate;
 
     @UpdateTimestamp
@@ -70,7 +71,10 @@ public class BeerOrder {
     public void setCustomer(Customer customer) {
         if (customer != null) {
             this.customer = customer;
-            customer.getBeerOrders().add(this);
+            // beerOrders is lazy; touching an unloaded collection of a detached customer would throw, and the
+            // owning side is this order anyway, so the inverse side is only kept in step once it has been loaded
+            if (Hibernate.isInitialized(customer.getBeerOrders()))
+                customer.getBeerOrders().add(this);
         }
     }
 
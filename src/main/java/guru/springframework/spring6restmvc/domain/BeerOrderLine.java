@@ -53,7 +53,7 @@ public class BeerOrderLine {
 
     @Builder.Default
     @Enumerated(EnumType.STRING)
-    @Column(length = 20, columnDefinition = "varchar(20)", nullable = false, updatable = false)
+    @Column(length = 20, columnDefinition = "varchar(20)", nullable = false)
     private BeerOrderLineStatus status = BeerOrderLineStatus.NEW;
 
     @CreationTimestamp
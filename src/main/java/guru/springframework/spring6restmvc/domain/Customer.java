@@ -47,7 +47,7 @@ public class Customer {
     private LocalDateTime lastModifiedDate;
 
     @Builder.Default
-    @OneToMany(mappedBy = "customer", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "customer", fetch = FetchType.LAZY)
     private Set<BeerOrder> beerOrders = new HashSet<>();
 
 }
@@ -0,0 +1,48 @@
+package guru.springframework.spring6restmvc.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A Kafka record waiting to be sent, written in the same transaction as the change it announces and removed by
+ * {@link guru.springframework.spring6restmvc.outbox.OutboxRelay} once the broker has acknowledged it.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:13:05
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(length = 100)
+    private String eventKey;
+
+    @Column(nullable = false)
+    private String payloadType;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdDate;
+
+    /** set while a relay is sending the event; other relays leave it alone until then */
+    private LocalDateTime claimedUntil;
+}
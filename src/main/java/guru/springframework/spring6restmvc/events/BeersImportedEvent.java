@@ -0,0 +1,30 @@
+package guru.springframework.spring6restmvc.events;
+
+import guru.springframework.spring6restmvc.domain.Beer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One committed chunk of a bulk import - audited and indexed as a unit rather than as a {@link BeerCreatedEvent} per
+ * row.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:09:34
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class BeersImportedEvent {
+
+    private UUID jobId;
+
+    private List<Beer> beers;
+
+    private Authentication authentication;
+}
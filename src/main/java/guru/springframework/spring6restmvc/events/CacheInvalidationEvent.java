@@ -0,0 +1,62 @@
+package guru.springframework.spring6restmvc.events;
+
+import guru.springframework.spring6restmvc.cache.BeerState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A batch of local cache invalidations, broadcast on {@code cache.invalidation} so the other rest-mvc replicas can
+ * drop the same entries.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:06:02
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheInvalidationEvent {
+
+    private String nodeId;
+
+    @Builder.Default
+    private Map<String, Set<UUID>> evictedKeys = new HashMap<>();
+
+    @Builder.Default
+    private Set<String> clearedCaches = new HashSet<>();
+
+    @Builder.Default
+    private List<BeerListChange> beerListChanges = new ArrayList<>();
+
+    /** beers inserted, renamed or deleted; peers re-read their names into the name index */
+    @Builder.Default
+    private Set<UUID> beerNameChanges = new HashSet<>();
+
+    public boolean isEmpty() {
+        return evictedKeys.isEmpty() && clearedCaches.isEmpty() && beerListChanges.isEmpty() && beerNameChanges.isEmpty();
+    }
+
+    public int size() {
+        return evictedKeys.values().stream().mapToInt(Set::size).sum() + clearedCaches.size() + beerListChanges.size()
+                + beerNameChanges.size();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BeerListChange {
+        private BeerState before;
+        private BeerState after;
+    }
+}
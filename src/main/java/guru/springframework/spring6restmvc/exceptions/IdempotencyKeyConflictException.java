@@ -0,0 +1,23 @@
+package guru.springframework.spring6restmvc.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:18:05
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyKeyConflictException extends RuntimeException {
+    public IdempotencyKeyConflictException() {
+    }
+
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+
+    public IdempotencyKeyConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
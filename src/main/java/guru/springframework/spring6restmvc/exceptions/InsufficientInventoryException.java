@@ -0,0 +1,23 @@
+package guru.springframework.spring6restmvc.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:15:52
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientInventoryException extends RuntimeException {
+    public InsufficientInventoryException() {
+    }
+
+    public InsufficientInventoryException(String message) {
+        super(message);
+    }
+
+    public InsufficientInventoryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,207 @@
+package guru.springframework.spring6restmvc.intake;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.springframework.spring6restmvc.model.BeerOrderIntakeTicket;
+import guru.springframework.spring6restmvc.services.BeerOrderService;
+import guru.springframework.spring6restmvcapi.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvcapi.model.BeerOrderDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Asynchronous order intake. {@link #submit} only queues the validated order in a bounded queue and hands back a
+ * ticket, so a request costs no database connection; when the queue is full the order is refused and the client told
+ * to retry later. A fixed set of worker threads drains the queue, taking whatever has piled up (up to
+ * {@code batch-size}) and creating those orders in one transaction, so their inserts share a flush and go out as JDBC
+ * batches. If the batch fails, its orders are retried one per transaction so one bad order only fails its own ticket.
+ * <p>
+ * Queued orders live in memory only; orders still queued when the process dies are lost. A normal shutdown drains
+ * the queue first.
+ * <p>
+ * Metrics: the {@code beer.order.intake.queue.depth} gauge, the {@code beer.order.intake.wait} timer (time spent
+ * queued), the {@code beer.order.intake.batch.size} summary and the {@code beer.order.intake.created} /
+ * {@code beer.order.intake.failed} / {@code beer.order.intake.rejected} counters.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:19:35
+ */
+@Slf4j
+@Component
+public class BeerOrderIntake {
+
+    static final long POLL_MILLIS = 200;
+
+    private final BeerOrderService beerOrderService;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Submission> queue;
+    private final int batchSize;
+    private final Duration retryAfter;
+    private final Cache<UUID, BeerOrderIntakeTicket> tickets;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final Timer waitTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter created;
+    private final Counter failed;
+    private final Counter rejected;
+
+    public BeerOrderIntake(BeerOrderService beerOrderService, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.beer-order-intake.queue-capacity:1000}") int queueCapacity,
+                           @Value("${app.beer-order-intake.workers:2}") int workerCount,
+                           @Value("${app.beer-order-intake.batch-size:50}") int batchSize,
+                           @Value("${app.beer-order-intake.retry-after:1s}") Duration retryAfter,
+                           @Value("${app.beer-order-intake.ticket-ttl:1h}") Duration ticketTtl,
+                           @Value("${app.beer-order-intake.ticket-maximum-size:100000}") long ticketMaximumSize) {
+        this.beerOrderService = beerOrderService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.retryAfter = retryAfter;
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(ticketMaximumSize)
+                .expireAfterWrite(ticketTtl)
+                .build();
+
+        meterRegistry.gauge("beer.order.intake.queue.depth", queue, BlockingQueue::size);
+        this.waitTimer = Timer.builder("beer.order.intake.wait").description("Time an order spent queued before a worker took it").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("beer.order.intake.batch.size").description("Orders created per intake transaction").register(meterRegistry);
+        this.created = meterRegistry.counter("beer.order.intake.created");
+        this.failed = meterRegistry.counter("beer.order.intake.failed");
+        this.rejected = meterRegistry.counter("beer.order.intake.rejected");
+
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofPlatform().name("beer-order-intake-" + i).daemon().start(this::run));
+        }
+        log.info("Beer order intake started: capacity {}, {} workers, batch {}", queueCapacity, workerCount, batchSize);
+    }
+
+    /**
+     * Queues the order and returns its ticket, or an empty optional if the queue is full.
+     */
+    public Optional<BeerOrderIntakeTicket> submit(BeerOrderCreateDTO beerOrderCreateDTO) {
+        BeerOrderIntakeTicket ticket = BeerOrderIntakeTicket.builder()
+                .id(UUID.randomUUID())
+                .status(BeerOrderIntakeTicket.Status.QUEUED)
+                .createdDate(LocalDateTime.now())
+                .build();
+        // registered first, so a worker that takes the order straight away finds the ticket to update
+        tickets.put(ticket.getId(), ticket);
+        if (!queue.offer(new Submission(ticket.getId(), beerOrderCreateDTO, System.nanoTime()))) {
+            tickets.invalidate(ticket.getId());
+            rejected.increment();
+            return Optional.empty();
+        }
+        return Optional.of(ticket);
+    }
+
+    public Optional<BeerOrderIntakeTicket> getTicket(UUID ticketId) {
+        return Optional.ofNullable(tickets.getIfPresent(ticketId));
+    }
+
+    /**
+     * Whole seconds a refused client should wait before submitting again, at least one.
+     */
+    public long retryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(POLL_MILLIS * 10 + 5_000);
+        }
+    }
+
+    private void run() {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Submission first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Beer order intake worker loop failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void process(List<Submission> batch) {
+        long now = System.nanoTime();
+        batch.forEach(submission -> waitTimer.record(now - submission.enqueuedNanos(), TimeUnit.NANOSECONDS));
+        batchSizes.record(batch.size());
+        if (batch.size() == 1) {
+            processOne(batch.getFirst());
+            return;
+        }
+
+        List<BeerOrderDTO> orders;
+        try {
+            orders = transactionTemplate.execute(status -> batch.stream()
+                    .map(submission -> beerOrderService.createOrder(submission.order()))
+                    .toList());
+        } catch (RuntimeException e) {
+            log.debug("Intake batch of {} orders failed ({}), retrying one by one", batch.size(), e.getMessage());
+            batch.forEach(this::processOne);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            markCreated(batch.get(i), orders.get(i));
+        }
+    }
+
+    private void processOne(Submission submission) {
+        try {
+            markCreated(submission, transactionTemplate.execute(status -> beerOrderService.createOrder(submission.order())));
+        } catch (RuntimeException e) {
+            log.warn("Queued order {} could not be created: {}", submission.ticketId(), e.getMessage());
+            failed.increment();
+            update(submission.ticketId(), ticket -> ticket.toBuilder().status(BeerOrderIntakeTicket.Status.FAILED)
+                    .error(e.getMessage()).finishedDate(LocalDateTime.now()).build());
+        }
+    }
+
+    private void markCreated(Submission submission, BeerOrderDTO order) {
+        created.increment();
+        update(submission.ticketId(), ticket -> ticket.toBuilder().status(BeerOrderIntakeTicket.Status.CREATED)
+                .orderId(order.getId()).finishedDate(LocalDateTime.now()).build());
+    }
+
+    private void update(UUID ticketId, UnaryOperator<BeerOrderIntakeTicket> change) {
+        tickets.asMap().computeIfPresent(ticketId, (id, ticket) -> change.apply(ticket));
+    }
+
+    record Submission(UUID ticketId, BeerOrderCreateDTO order, long enqueuedNanos) {
+    }
+}
@@ -0,0 +1,58 @@
+package guru.springframework.spring6restmvc.inventory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Quantity on hand of one beer as the last persisted value plus the deltas not yet written back. Adjustments only
+ * compare-and-set {@link #pending}, so they never block and never touch the database; {@link #persisted} is written
+ * by the flusher alone.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:15:50
+ */
+class InventoryCounter {
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile int persisted;
+
+    InventoryCounter(int persisted) {
+        this.persisted = persisted;
+    }
+
+    int onHand() {
+        return persisted + pending.get();
+    }
+
+    int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Applies {@code delta} and returns the new quantity, or -1 when it would take the quantity below zero.
+     */
+    int tryAdjust(int delta) {
+        while (true) {
+            int current = pending.get();
+            int onHand = persisted + current + delta;
+            if (delta < 0 && onHand < 0)
+                return -1;
+            if (pending.compareAndSet(current, current + delta))
+                return onHand;
+        }
+    }
+
+    /**
+     * Records that {@code flushed} of the pending delta reached the database, which now holds {@code stored}. Pending
+     * is lowered first, so a concurrent reader may briefly see too little stock but never too much.
+     */
+    void flushed(int flushed, int stored) {
+        pending.addAndGet(-flushed);
+        persisted = stored;
+    }
+
+    void reset(int quantity) {
+        pending.set(0);
+        persisted = quantity;
+    }
+}
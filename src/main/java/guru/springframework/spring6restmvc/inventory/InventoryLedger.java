@@ -0,0 +1,292 @@
+package guru.springframework.spring6restmvc.inventory;
+
+import guru.springframework.spring6restmvc.cache.CacheInvalidationPublisher;
+import guru.springframework.spring6restmvc.exceptions.InsufficientInventoryException;
+import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.model.InventoryLevel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Owns {@code beer.quantity_on_hand} for stock movements. Each beer has its own {@link InventoryCounter}, so
+ * adjustments to different beers never contend and adjustments to a hot beer are a compare-and-set in memory instead
+ * of a versioned row update. A single flusher thread writes the accumulated deltas back every {@code flush-interval}
+ * as one batch of relative updates, which neither bumps the beer's version nor loses stock moved by another replica.
+ * Each replica only checks stock against its own counters, so the update itself refuses to take a row below zero; a
+ * refused delta is dropped and the counter re-based on the stored value, counted as {@code inventory.conflicts}.
+ * <p>
+ * On startup the counters are loaded from the table; after every flush each counter is re-based on the stored value,
+ * so changes made by other replicas show up within one interval. Deltas not yet flushed when the process dies are
+ * lost, at most one interval's worth; a normal shutdown flushes them.
+ * <p>
+ * Absolute quantities set through the beer PUT/PATCH endpoints go through {@link #reset}, which discards pending
+ * deltas for that beer once the update has committed.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:16:05
+ */
+@Slf4j
+@Component
+public class InventoryLedger {
+
+    static final String SELECT_ALL = "select id, quantity_on_hand from beer";
+    static final String SELECT_ONE = "select quantity_on_hand from beer where id = ?";
+    static final String ADD_DELTA = "update beer set quantity_on_hand = coalesce(quantity_on_hand, 0) + ? " +
+            "where id = ? and coalesce(quantity_on_hand, 0) + ? >= 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final Duration flushInterval;
+    private final int flushBatchSize;
+    private final Map<UUID, InventoryCounter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+
+    private final Counter adjustments;
+    private final Counter rejected;
+    private final Counter conflicts;
+    private final Timer flushTimer;
+
+    public InventoryLedger(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           CacheManager cacheManager, CacheInvalidationPublisher cacheInvalidationPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.inventory.flush-interval:1s}") Duration flushInterval,
+                           @Value("${app.inventory.flush-batch-size:500}") int flushBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.flushInterval = flushInterval;
+        this.flushBatchSize = flushBatchSize;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("inventory-flusher").daemon().factory());
+
+        this.adjustments = meterRegistry.counter("inventory.adjustments");
+        this.rejected = meterRegistry.counter("inventory.rejected");
+        this.conflicts = meterRegistry.counter("inventory.conflicts");
+        this.flushTimer = Timer.builder("inventory.flush").description("Time to write back one batch of inventory deltas").register(meterRegistry);
+        meterRegistry.gauge("inventory.pending", counters, all -> all.values().stream().filter(c -> c.pending() != 0).count());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reconcile();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Inventory ledger tracking {} beers, flushing every {}", counters.size(), flushInterval);
+    }
+
+    /**
+     * Moves the quantity on hand of {@code beerId} by {@code delta}.
+     *
+     * @throws NotFoundException              if there is no such beer
+     * @throws InsufficientInventoryException if a negative delta is larger than the stock on hand
+     */
+    public InventoryLevel adjust(UUID beerId, int delta) {
+        InventoryCounter counter = counter(beerId);
+        int onHand = counter.tryAdjust(delta);
+        if (onHand < 0) {
+            rejected.increment();
+            throw new InsufficientInventoryException("Only " + counter.onHand() + " of beer " + beerId + " on hand");
+        }
+        adjustments.increment();
+        return InventoryLevel.builder().beerId(beerId).quantityOnHand(onHand).pendingDelta(counter.pending()).build();
+    }
+
+    public Optional<Integer> onHand(UUID beerId) {
+        return Optional.ofNullable(counters.get(beerId)).map(InventoryCounter::onHand);
+    }
+
+    /**
+     * Re-bases the counter of {@code beerId} on the quantity a beer update wrote, dropping any deltas not yet flushed.
+     * Applied after the surrounding transaction commits, from the stored row rather than the request: a flush that
+     * slips in between the commit and this callback has already added its deltas on top of the new value.
+     */
+    public void reset(UUID beerId) {
+        afterCommit(() -> {
+            flushLock.lock();
+            try {
+                InventoryCounter counter = counters.get(beerId);
+                if (counter == null)
+                    return;
+                List<Integer> quantity = jdbcTemplate.query(SELECT_ONE, (rs, rowNum) -> rs.getInt(1), beerId.toString());
+                if (quantity.isEmpty()) {
+                    counters.remove(beerId);
+                } else {
+                    counter.reset(quantity.getFirst());
+                }
+            } finally {
+                flushLock.unlock();
+            }
+        });
+    }
+
+    public void forget(UUID beerId) {
+        afterCommit(() -> counters.remove(beerId));
+    }
+
+    /**
+     * Writes every pending delta back to the database and returns the number of beers written.
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            Map<UUID, Integer> deltas = new HashMap<>();
+            counters.forEach((beerId, counter) -> {
+                int pending = counter.pending();
+                if (pending != 0)
+                    deltas.put(beerId, pending);
+            });
+            if (deltas.isEmpty())
+                return 0;
+
+            List<UUID> beerIds = new ArrayList<>(deltas.keySet());
+            int written = 0;
+            for (int from = 0; from < beerIds.size(); from += flushBatchSize) {
+                written += flushBatch(beerIds.subList(from, Math.min(from + flushBatchSize, beerIds.size())), deltas);
+            }
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdownNow();
+        flushQuietly();
+    }
+
+    private int flushBatch(List<UUID> beerIds, Map<UUID, Integer> deltas) {
+        Set<UUID> refused = new HashSet<>();
+        Map<UUID, Integer> stored = flushTimer.record(() -> transactionTemplate.execute(status -> {
+            int[][] counts = jdbcTemplate.batchUpdate(ADD_DELTA, beerIds, beerIds.size(), (ps, beerId) -> {
+                ps.setInt(1, deltas.get(beerId));
+                ps.setString(2, beerId.toString());
+                ps.setInt(3, deltas.get(beerId));
+            });
+            for (int i = 0; i < beerIds.size(); i++) {
+                if (counts[0][i] == 0)
+                    refused.add(beerIds.get(i));
+            }
+            return readQuantities(beerIds);
+        }));
+
+        Cache beerCache = cacheManager.getCache("beerCache");
+        for (UUID beerId : beerIds) {
+            Integer quantity = stored == null ? null : stored.get(beerId);
+            InventoryCounter counter = counters.get(beerId);
+            if (quantity == null || counter == null) {
+                // deleted while it still had stock moving
+                counters.remove(beerId);
+                continue;
+            }
+            if (refused.contains(beerId)) {
+                // another replica sold the same stock first; drop our delta and take the stored value
+                conflicts.increment();
+                log.warn("Inventory delta {} for beer {} would take stock below zero from {}; dropped",
+                        deltas.get(beerId), beerId, quantity);
+            }
+            counter.flushed(deltas.get(beerId), quantity);
+            if (beerCache != null)
+                beerCache.evict(beerId);
+            cacheInvalidationPublisher.evict("beerCache", beerId);
+        }
+        return beerIds.size();
+    }
+
+    private Map<UUID, Integer> readQuantities(List<UUID> beerIds) {
+        String placeholders = String.join(",", Collections.nCopies(beerIds.size(), "?"));
+        Map<UUID, Integer> quantities = new HashMap<>();
+        jdbcTemplate.query(SELECT_ALL + " where id in (" + placeholders + ")",
+                rs -> {
+                    quantities.put(UUID.fromString(rs.getString(1)), rs.getInt(2));
+                },
+                beerIds.stream().map(UUID::toString).toArray());
+        return quantities;
+    }
+
+    private void reconcile() {
+        flushLock.lock();
+        try {
+            jdbcTemplate.query(SELECT_ALL, rs -> {
+                UUID beerId = UUID.fromString(rs.getString(1));
+                int quantity = rs.getInt(2);
+                counters.compute(beerId, (id, counter) -> {
+                    if (counter == null)
+                        return new InventoryCounter(quantity);
+                    counter.flushed(0, quantity);
+                    return counter;
+                });
+            });
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private InventoryCounter counter(UUID beerId) {
+        InventoryCounter counter = counters.get(beerId);
+        if (counter != null)
+            return counter;
+        // loaded outside the map so the query does not hold up other beers hashing to the same bin
+        List<Integer> quantity = jdbcTemplate.query(SELECT_ONE, (rs, rowNum) -> rs.getInt(1), beerId.toString());
+        if (quantity.isEmpty())
+            throw new NotFoundException("Beer not found with id: " + beerId);
+        InventoryCounter loaded = new InventoryCounter(quantity.getFirst());
+        InventoryCounter raced = counters.putIfAbsent(beerId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // nothing was subtracted from the counters, so the deltas go out with the next flush
+            log.warn("Inventory flush failed: {}", e.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package guru.springframework.spring6restmvc.kafka;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Value encodings understood by {@link NegotiatingSerializer} and {@link NegotiatingDeserializer}, and the record
+ * header that names them. Records without the header are JSON, which is what every producer wrote before.
+ * <p>
+ * The binary encoding is Jackson Smile over the same event classes, so the shared API module remains the schema:
+ * field names are written once per message and back-referenced, repeated short strings are shared, and numbers and
+ * UUID strings skip JSON's text parsing.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:15:05
+ */
+public enum KafkaContentType {
+    JSON("application/json"),
+    SMILE("application/x-jackson-smile");
+
+    public static final String HEADER = "contentType";
+
+    /**
+     * Producer property listing, comma separated, the topics whose values are written as {@link #SMILE}.
+     */
+    public static final String BINARY_TOPICS_CONFIG = "app.kafka.binary-topics";
+
+    private final String mimeType;
+
+    KafkaContentType(String mimeType) {
+        this.mimeType = mimeType;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    static KafkaContentType of(Headers headers) {
+        Header header = headers == null ? null : headers.lastHeader(HEADER);
+        if (header != null && SMILE.mimeType.equals(new String(header.value(), StandardCharsets.UTF_8)))
+            return SMILE;
+        return JSON;
+    }
+
+    static Set<String> binaryTopics(Map<String, ?> configs) {
+        Object topics = configs.get(BINARY_TOPICS_CONFIG);
+        if (topics == null)
+            return Set.of();
+        return Arrays.stream(topics.toString().split(","))
+                .map(String::trim)
+                .filter(topic -> !topic.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    static ObjectMapper smileMapper() {
+        return SmileMapper.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .configure(MapperFeature.DEFAULT_VIEW_INCLUSION, false)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .findAndAddModules()
+                .build();
+    }
+}
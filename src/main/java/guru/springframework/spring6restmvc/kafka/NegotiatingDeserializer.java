@@ -0,0 +1,47 @@
+package guru.springframework.spring6restmvc.kafka;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Reads values written by {@link NegotiatingSerializer}, choosing the decoder from the record's
+ * {@link KafkaContentType#HEADER} header. Records without it are read as JSON, so producers still on Spring's plain
+ * {@link org.springframework.kafka.support.serializer.JsonSerializer} keep working.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:15:18
+ */
+public class NegotiatingDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> json = new JsonDeserializer<>();
+    private final JsonDeserializer<Object> smile = new JsonDeserializer<>(KafkaContentType.smileMapper());
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+        smile.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return json.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        return switch (KafkaContentType.of(headers)) {
+            case SMILE -> smile.deserialize(topic, headers, data);
+            case JSON -> json.deserialize(topic, headers, data);
+        };
+    }
+
+    @Override
+    public void close() {
+        json.close();
+        smile.close();
+    }
+}
@@ -0,0 +1,53 @@
+package guru.springframework.spring6restmvc.kafka;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes values as JSON or, for the topics listed in {@link KafkaContentType#BINARY_TOPICS_CONFIG}, as Smile, and
+ * tags each record with a {@link KafkaContentType#HEADER} header. Both encodings go through Spring's
+ * {@link JsonSerializer}, so the usual {@code __TypeId__} headers are still added.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:15:12
+ */
+public class NegotiatingSerializer implements Serializer<Object> {
+
+    private final JsonSerializer<Object> json = new JsonSerializer<>();
+    private final JsonSerializer<Object> smile = new JsonSerializer<>(KafkaContentType.smileMapper());
+    private Set<String> binaryTopics = Set.of();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+        smile.configure(configs, isKey);
+        binaryTopics = KafkaContentType.binaryTopics(configs);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return json.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null)
+            return null;
+        KafkaContentType contentType = binaryTopics.contains(topic) ? KafkaContentType.SMILE : KafkaContentType.JSON;
+        headers.remove(KafkaContentType.HEADER);
+        headers.add(KafkaContentType.HEADER, contentType.getMimeType().getBytes(StandardCharsets.UTF_8));
+        return (contentType == KafkaContentType.SMILE ? smile : json).serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+        smile.close();
+    }
+}
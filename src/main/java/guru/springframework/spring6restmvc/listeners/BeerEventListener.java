@@ -1,16 +1,20 @@
 package guru.springframework.spring6restmvc.listeners;
 
+import guru.springframework.spring6restmvc.audit.BeerAuditWriter;
 import guru.springframework.spring6restmvc.domain.Beer;
 import guru.springframework.spring6restmvc.domain.BeerAudit;
 import guru.springframework.spring6restmvc.events.*;
 import guru.springframework.spring6restmvc.mappers.BeerMapper;
-import guru.springframework.spring6restmvc.repository.BeerAuditRepository;
+import guru.springframework.spring6restmvc.repository.BeerNameIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
 
 /**
  * Author:john
@@ -23,10 +27,13 @@ import org.springframework.stereotype.Component;
 public class BeerEventListener {
 
     private final BeerMapper beerMapper;
-    private final BeerAuditRepository beerAuditRepository;
-
+    private final BeerAuditWriter beerAuditWriter;
+    private final BeerNameIndex beerNameIndex;
 
-    @Async
+    /**
+     * Runs on the publishing thread: queueing is cheap, and a full queue spills to disk rather than pile up threads
+     * waiting on the audit table.
+     */
     @EventListener
     void listener(BeerEvent event) {
         Beer beer = event.getBeer();
@@ -41,7 +48,38 @@ public class BeerEventListener {
             beerAudit.setPrincipalName(authentication.getName());
         log.info("Beer Audit: {}", beerAudit);
 
-        beerAuditRepository.save(beerAudit);
+        beerAuditWriter.enqueue(beerAudit);
+    }
+
+    @EventListener
+    void listener(BeersImportedEvent event) {
+        log.info("Beers imported by job {}: {} by {}", event.getJobId(), event.getBeers().size(), event.getAuthentication());
+
+        List<BeerAudit> audits = event.getBeers().stream().map(beer -> {
+            BeerAudit beerAudit = beerMapper.beerToBeerAudit(beer);
+            beerAudit.setAuditEventType("BEER_IMPORTED");
+            if (event.getAuthentication() != null && event.getAuthentication().getName() != null)
+                beerAudit.setPrincipalName(event.getAuthentication().getName());
+            return beerAudit;
+        }).toList();
+        beerAuditWriter.enqueueAll(audits);
+
+        // published after the chunk committed, so no transactional listener is needed here
+        event.getBeers().forEach(beer -> beerNameIndex.put(beer.getId(), beer.getBeerName()));
+    }
+
+    /**
+     * Keeps the name index in step with committed writes only - a rolled back delete must not hide the beer. Runs on
+     * the committing thread, so the writer's next name search already sees the change and changes to one beer are
+     * applied in the order they committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    void index(BeerEvent event) {
+        Beer beer = event.getBeer();
+        if (event instanceof BeerDeletedEvent)
+            beerNameIndex.remove(beer.getId());
+        else
+            beerNameIndex.put(beer.getId(), beer.getBeerName());
     }
 
     private String getBeerEventType(BeerEvent event) {
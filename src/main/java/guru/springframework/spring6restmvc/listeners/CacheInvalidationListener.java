@@ -0,0 +1,56 @@
+package guru.springframework.spring6restmvc.listeners;
+
+import guru.springframework.spring6restmvc.cache.BeerListCache;
+import guru.springframework.spring6restmvc.cache.CacheInvalidationPublisher;
+import guru.springframework.spring6restmvc.config.KafkaConfig;
+import guru.springframework.spring6restmvc.events.CacheInvalidationEvent;
+import guru.springframework.spring6restmvc.repository.BeerNameIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies cache invalidations published by the other replicas. Every node listens in its own consumer group so each
+ * one sees every batch, starting from the latest offset - history is irrelevant to a freshly started, empty cache.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:06:24
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationListener {
+
+    private final CacheManager cacheManager;
+    private final BeerListCache beerListCache;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final BeerNameIndex beerNameIndex;
+
+    @KafkaListener(groupId = "#{'cache-invalidation-' + @cacheInvalidationPublisher.nodeId}",
+            topics = KafkaConfig.CACHE_INVALIDATION_TOPIC, properties = "auto.offset.reset=latest")
+    public void receive(@Payload CacheInvalidationEvent event) {
+        if (cacheInvalidationPublisher.getNodeId().equals(event.getNodeId()))
+            return;
+        log.debug("Applying {} cache invalidations from node {}", event.size(), event.getNodeId());
+
+        event.getEvictedKeys().forEach((cacheName, keys) -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null)
+                keys.forEach(cache::evict);
+        });
+        event.getClearedCaches().forEach(cacheName -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (BeerListCache.CACHE_NAME.equals(cacheName))
+                beerListCache.clear();
+            else if (cache != null)
+                cache.clear();
+        });
+        event.getBeerListChanges().forEach(change -> beerListCache.invalidate(change.getBefore(), change.getAfter()));
+        beerNameIndex.refresh(event.getBeerNameChanges());
+    }
+}
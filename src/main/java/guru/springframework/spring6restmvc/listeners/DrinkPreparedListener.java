@@ -1,8 +1,8 @@
 package guru.springframework.spring6restmvc.listeners;
 
 import guru.springframework.spring6restmvc.config.KafkaConfig;
+import guru.springframework.spring6restmvc.config.KafkaListenerConfig;
 import guru.springframework.spring6restmvc.services.BeerOrderLineService;
-import guru.springframework.spring6restmvcapi.enums.BeerOrderLineStatus;
 import guru.springframework.spring6restmvcapi.events.DrinkPreparedEvent;
 import guru.springframework.spring6restmvcapi.model.BeerOrderLineDTO;
 import lombok.RequiredArgsConstructor;
@@ -10,7 +10,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Objects;
+
 /**
+ * Completes order lines as their drinks come back prepared. A whole poll is applied with one set-based update rather
+ * than a load and save per event.
+ *
  * Author:john
  * Date:08/05/2025
  * Time:02:24
@@ -23,11 +29,20 @@ public class DrinkPreparedListener {
 
     private final BeerOrderLineService beerOrderLineService;
 
-    @KafkaListener(groupId="drinks.prepared.consumer", topics= KafkaConfig.DRINK_PREPARED_TOPIC)
-    public void drinkPrepared(DrinkPreparedEvent drinkPreparedEvent) {
-        log.info("Drink prepared event received: {}", drinkPreparedEvent);
-        drinkPreparedEvent.getBeerOrderLine().setStatus(BeerOrderLineStatus.COMPLETE);
-        BeerOrderLineDTO updated = beerOrderLineService.update(drinkPreparedEvent.getBeerOrderLine().getId(), drinkPreparedEvent.getBeerOrderLine());
-        log.info("Updated drink order line status: " + updated.getStatus());
+    @KafkaListener(groupId = "drinks.prepared.consumer", topics = KafkaConfig.DRINK_PREPARED_TOPIC,
+            containerFactory = KafkaListenerConfig.BATCH_LISTENER_FACTORY)
+    public void drinksPrepared(List<DrinkPreparedEvent> drinkPreparedEvents) {
+        List<BeerOrderLineDTO> lines = drinkPreparedEvents.stream()
+                .map(DrinkPreparedEvent::getBeerOrderLine)
+                .filter(Objects::nonNull)
+                .filter(line -> line.getId() != null)
+                .toList();
+        if (lines.size() < drinkPreparedEvents.size())
+            log.error("Ignoring {} drink prepared events without an order line id", drinkPreparedEvents.size() - lines.size());
+        if (lines.isEmpty())
+            return;
+
+        int updated = beerOrderLineService.completeLines(lines);
+        log.info("Drink prepared events received: {}, order lines completed: {}", drinkPreparedEvents.size(), updated);
     }
 }
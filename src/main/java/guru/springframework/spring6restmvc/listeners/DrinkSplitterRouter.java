@@ -1,101 +1,109 @@
 package guru.springframework.spring6restmvc.listeners;
 
 import guru.springframework.spring6restmvc.config.KafkaConfig;
+import guru.springframework.spring6restmvc.config.KafkaListenerConfig;
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
 import guru.springframework.spring6restmvcapi.events.DrinkRequestEvent;
 import guru.springframework.spring6restmvcapi.events.OrderPlacedEvent;
 import guru.springframework.spring6restmvcapi.model.BeerOrderLineDTO;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
+ * Splits placed orders into drink requests, one per order line, routed by beer style to the ice-cold, cold or cool
+ * preparation topic.
+ * <p>
+ * Consumes a whole poll at a time. Lines are grouped by destination topic and sent keyed by order id, so the lines of
+ * one order stay in order on a partitioned topic. The listener returns, and the container commits the batch's
+ * offsets, only after every send has been acknowledged; a failed or timed out send fails the batch, which is then
+ * redelivered.
+ *
  * Author:john
  * Date:28/04/2025
  * Time:05:49
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class DrinkSplitterRouter {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Duration sendTimeout;
+
+    public DrinkSplitterRouter(KafkaTemplate<String, Object> kafkaTemplate,
+                               @Value("${app.kafka.drink-splitter.send-timeout:30s}") Duration sendTimeout) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.sendTimeout = sendTimeout;
+    }
+
+    @KafkaListener(groupId = "DrinkSplitterRouter", topics = KafkaConfig.ORDER_PLACED_TOPIC,
+            containerFactory = KafkaListenerConfig.BATCH_LISTENER_FACTORY)
+    public void receive(@Payload List<OrderPlacedEvent> events) {
+        Map<String, List<DrinkRequest>> byTopic = new LinkedHashMap<>();
+        events.forEach(event -> split(event, byTopic));
+
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>();
+        byTopic.forEach((topic, requests) -> requests.forEach(request ->
+                sends.add(kafkaTemplate.send(topic, request.key(), request.event()))));
+        log.debug("Split {} orders into {} drink requests over {} topics", events.size(), sends.size(), byTopic.size());
 
-    @KafkaListener(groupId="DrinkSplitterRouter", topics= KafkaConfig.ORDER_PLACED_TOPIC)
-    public void receive(@Payload OrderPlacedEvent event) {
+        awaitAll(sends);
+    }
+
+    private void split(OrderPlacedEvent event, Map<String, List<DrinkRequest>> byTopic) {
         if (event.getBeerOrderDTO() == null ||
-        event.getBeerOrderDTO().getOrderLines() == null ||
-        event.getBeerOrderDTO().getOrderLines().isEmpty()) {
+                event.getBeerOrderDTO().getOrderLines() == null ||
+                event.getBeerOrderDTO().getOrderLines().isEmpty()) {
             log.error("Invalid order placed event: {}", event);
             return;
         }
+        String key = event.getBeerOrderDTO().getId() != null ? event.getBeerOrderDTO().getId().toString() : null;
         event.getBeerOrderDTO().getOrderLines().forEach(beerOrderLine -> {
-            switch (beerOrderLine.getBeer().getBeerStyle()) {
-                case LAGER:
-                    log.info("Splitting LAGER Order");
-                    sendIceColdBeer(beerOrderLine);
-                    break;
-                case PILSNER:
-                    log.info("Splitting PILSNER Order");
-                    sendIceColdBeer(beerOrderLine);
-                    break;
-                case STOUT:
-                    log.info("Splitting STOUT Order");
-                    sendCoolBeer(beerOrderLine);
-                    break;
-                case GOSE:
-                    log.info("Splitting Gose Order");
-                    sendColdBeer(beerOrderLine);
-                    break;
-                case PORTER:
-                    log.info("Splitting PORTER Order");
-                    sendCoolBeer(beerOrderLine);
-                    break;
-                case ALE:
-                    log.info("Splitting ALE Order");
-                    sendCoolBeer(beerOrderLine);
-                    break;
-                case WHEAT:
-                    log.info("Splitting WHEAT Order");
-                    sendColdBeer(beerOrderLine);
-                    break;
-                case IPA:
-                    log.info("Splitting IPA Order");
-                    sendCoolBeer(beerOrderLine);
-                    break;
-                case PALE_ALE:
-                    log.info("Splitting PALE_ALE Order");
-                    sendCoolBeer(beerOrderLine);
-                    break;
-                case SAISON:
-                    log.info("Splitting SAISON Order");
-                    sendIceColdBeer(beerOrderLine);
-                    break;
+            BeerStyle beerStyle = beerOrderLine.getBeer() != null ? beerOrderLine.getBeer().getBeerStyle() : null;
+            if (beerStyle == null) {
+                log.error("Order line without beer style in order {}: {}", key, beerOrderLine);
+                return;
             }
+            byTopic.computeIfAbsent(topicFor(beerStyle), topic -> new ArrayList<>())
+                    .add(new DrinkRequest(key, DrinkRequestEvent.builder().beerOrderLine(beerOrderLine).build()));
         });
     }
 
-    private void sendIceColdBeer(BeerOrderLineDTO beerOrderLine) {
-        log.info("Sending Ice Cold Beer Order");
-        kafkaTemplate.send(KafkaConfig.DRINK_REQUEST_ICE_COLD_TOPIC, DrinkRequestEvent.builder().beerOrderLine(beerOrderLine).build());
+    static String topicFor(BeerStyle beerStyle) {
+        return switch (beerStyle) {
+            case LAGER, PILSNER, SAISON -> KafkaConfig.DRINK_REQUEST_ICE_COLD_TOPIC;
+            case GOSE, WHEAT -> KafkaConfig.DRINK_REQUEST_COLD_TOPIC;
+            case STOUT, PORTER, ALE, IPA, PALE_ALE -> KafkaConfig.DRINK_REQUEST_COOL_TOPIC;
+        };
     }
 
-    private void sendColdBeer(BeerOrderLineDTO beerOrderLineDTO) {
-        // send cold beer
-        log.info("Sending Cold Beer Order");
-        kafkaTemplate.send(KafkaConfig.DRINK_REQUEST_COLD_TOPIC, DrinkRequestEvent.builder()
-                .beerOrderLine(beerOrderLineDTO)
-                .build());
+    private void awaitAll(List<CompletableFuture<SendResult<String, Object>>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Drink request send failed; batch will be redelivered", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Drink request sends not acknowledged within " + sendTimeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for drink request sends", e);
+        }
     }
 
-    private void sendCoolBeer(BeerOrderLineDTO beerOrderLineDTO) {
-        // send cool beer
-        log.info("Sending Cool Beer Order");
-        kafkaTemplate.send(KafkaConfig.DRINK_REQUEST_COOL_TOPIC, DrinkRequestEvent.builder()
-                .beerOrderLine(beerOrderLineDTO)
-                .build());
+    private record DrinkRequest(String key, DrinkRequestEvent event) {
     }
-
 }
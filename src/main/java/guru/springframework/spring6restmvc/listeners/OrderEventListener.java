@@ -1,12 +1,11 @@
 package guru.springframework.spring6restmvc.listeners;
 
 import guru.springframework.spring6restmvc.config.KafkaConfig;
+import guru.springframework.spring6restmvc.outbox.OutboxWriter;
 import guru.springframework.spring6restmvcapi.events.OrderPlacedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 /**
@@ -20,12 +19,15 @@ import org.springframework.stereotype.Component;
 @Component
 public class OrderEventListener {
 
-    private final KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
 
-    @Async
+    /**
+     * Runs on the publishing thread so the outbox row joins the order's transaction; the relay sends it to Kafka.
+     */
     @EventListener
     public void listener(OrderPlacedEvent event) {
         log.info("New order placed event: {}", event.getBeerOrderDTO());
-        kafkaTemplate.send(KafkaConfig.ORDER_PLACED_TOPIC, event);
+        String key = event.getBeerOrderDTO().getId() != null ? event.getBeerOrderDTO().getId().toString() : null;
+        outboxWriter.append(KafkaConfig.ORDER_PLACED_TOPIC, key, event);
     }
 }
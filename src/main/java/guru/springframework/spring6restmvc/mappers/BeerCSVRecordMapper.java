@@ -0,0 +1,48 @@
+package guru.springframework.spring6restmvc.mappers;
+
+import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
+import guru.springframework.spring6restmvcapi.model.BeerDTO;
+import org.apache.commons.lang3.StringUtils;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Maps rows of the beers CSV (see {@code csvdata/beers.csv}) to beers. The CSV carries no price, so every imported
+ * beer starts at 10.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:09:25
+ */
+@Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE, imports = StringUtils.class)
+public interface BeerCSVRecordMapper {
+
+    BeerCSVRecordMapper INSTANCE = Mappers.getMapper(BeerCSVRecordMapper.class);
+
+    @Mapping(target = "beerName", expression = "java(StringUtils.abbreviate(beerCSVRecord.getBeer(), 50))")
+    @Mapping(target = "beerStyle", source = "style")
+    @Mapping(target = "upc", source = "row")
+    @Mapping(target = "quantityOnHand", source = "countX")
+    @Mapping(target = "price", constant = "10")
+    BeerDTO beerCSVRecordToBeerDTO(BeerCSVRecord beerCSVRecord);
+
+    default BeerStyle toBeerStyle(String style) {
+        if (style == null)
+            return BeerStyle.PILSNER;
+        return switch (style) {
+            case "American Pale Lager" -> BeerStyle.LAGER;
+            case "American Pale Ale (APA)", "American Black Ale", "Belgian Dark Ale", "American Blonde Ale" ->
+                    BeerStyle.ALE;
+            case "American IPA", "American Double / Imperial IPA", "Belgian IPA" -> BeerStyle.IPA;
+            case "American Porter" -> BeerStyle.PORTER;
+            case "Oatmeal Stout", "American Stout" -> BeerStyle.STOUT;
+            case "Saison / Farmhouse Ale" -> BeerStyle.SAISON;
+            case "Fruit / Vegetable Beer", "Winter Warmer", "Berliner Weissbier" -> BeerStyle.WHEAT;
+            case "English Pale Ale" -> BeerStyle.PALE_ALE;
+            default -> BeerStyle.PILSNER;
+        };
+    }
+}
@@ -15,8 +15,15 @@ import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Author:john
@@ -56,24 +63,40 @@ public abstract class BeerOrderCreateMapper {
     @Mapping(target = "beerOrder", ignore = true)
     abstract BeerOrderLine toBeerOrderLineEntity(BeerOrderLineCreateDTO beerOrderLineCreateDTO);
 
+    /**
+     * Resolves every beer the order refers to with one query and the customer with another. Unknown references are
+     * collected and reported together in a single {@link NotFoundException} rather than one at a time.
+     */
     public BeerOrder beerOrderCreateDTOToBeerOrder(BeerOrderCreateDTO beerOrderCreateDTO) {
         log.info("Converting BeerOrderCreateDTO to BeerOrder");
         BeerOrder beerOrder = toEntity(beerOrderCreateDTO);
-        Customer customer = customerRepository.findById(beerOrderCreateDTO.getCustomerId()).orElseThrow(NotFoundException::new);
-        log.info("Found Customer: {}", customer.getName());
-        beerOrder.setCustomer(customer);
+        Optional<Customer> customer = customerRepository.findById(beerOrderCreateDTO.getCustomerId());
+
+        Set<UUID> beerRefs = beerOrderCreateDTO.getOrderLines().stream()
+                .map(BeerOrderLineCreateDTO::getBeerRef)
+                .collect(Collectors.toSet());
+        Map<UUID, Beer> beers = beerRepository.findAllById(beerRefs).stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+
+        List<String> missing = new ArrayList<>();
+        if (customer.isEmpty())
+            missing.add("customer " + beerOrderCreateDTO.getCustomerId());
+        beerRefs.stream().filter(ref -> !beers.containsKey(ref)).forEach(ref -> missing.add("beer " + ref));
+        if (!missing.isEmpty())
+            throw new NotFoundException("Order refers to unknown " + String.join(", ", missing));
+
+        log.info("Found Customer: {} and {} beers", customer.get().getName(), beers.size());
+        beerOrder.setCustomer(customer.get());
         Set<BeerOrderLine> orderLines = new HashSet<>();
         beerOrderCreateDTO.getOrderLines().forEach(line ->
-                orderLines.add(beerOrderLineCreateDTOToBeerOrderLine(line)));
+                orderLines.add(beerOrderLineCreateDTOToBeerOrderLine(line, beers.get(line.getBeerRef()))));
         beerOrder.setOrderLines(orderLines);
-        log.info("BeerOrder Object: {}", beerOrder);
+        log.debug("BeerOrder Object: {}", beerOrder);
         return beerOrder;
     }
 
-    public BeerOrderLine beerOrderLineCreateDTOToBeerOrderLine(BeerOrderLineCreateDTO beerOrderLineCreateDTO) {
+    private BeerOrderLine beerOrderLineCreateDTOToBeerOrderLine(BeerOrderLineCreateDTO beerOrderLineCreateDTO, Beer beer) {
         BeerOrderLine beerOrderLine = toBeerOrderLineEntity(beerOrderLineCreateDTO);
-        Beer beer = beerRepository.findById(beerOrderLineCreateDTO.getBeerRef()).orElseThrow(NotFoundException::new);
-        log.info("Found Beer: {}", beer.getBeerName());
         beerOrderLine.setBeer(beer);
         return beerOrderLine;
     }
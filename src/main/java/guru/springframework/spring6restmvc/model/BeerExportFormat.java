@@ -0,0 +1,19 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:08:40
+ */
+@Getter
+@RequiredArgsConstructor
+public enum BeerExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+}
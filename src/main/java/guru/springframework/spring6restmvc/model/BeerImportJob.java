@@ -0,0 +1,35 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of a bulk beer import. Snapshots are replaced, never mutated, so a poll always sees a consistent view.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:09:31
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+public class BeerImportJob {
+
+    public enum Status {QUEUED, RUNNING, COMPLETED, FAILED}
+
+    private UUID id;
+    private Status status;
+    private String fileName;
+    private long rowsRead;
+    private long rowsImported;
+    private int chunksCommitted;
+    private String error;
+    private LocalDateTime createdDate;
+    private LocalDateTime finishedDate;
+}
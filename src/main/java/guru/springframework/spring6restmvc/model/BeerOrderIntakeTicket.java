@@ -0,0 +1,33 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Where an order submitted for asynchronous intake has got to. {@code orderId} is set once the order is created,
+ * {@code error} if it could not be. Snapshots are replaced, never mutated.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:19:30
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+public class BeerOrderIntakeTicket {
+
+    public enum Status {QUEUED, CREATED, FAILED}
+
+    private UUID id;
+    private Status status;
+    private UUID orderId;
+    private String error;
+    private LocalDateTime createdDate;
+    private LocalDateTime finishedDate;
+}
@@ -0,0 +1,30 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One window of a keyset paged listing. {@code nextCursor} is {@code null} on the last window.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:02:14
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPage<T> {
+
+    private List<T> content;
+    private String nextCursor;
+    private int pageSize;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
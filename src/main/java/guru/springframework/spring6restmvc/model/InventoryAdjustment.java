@@ -0,0 +1,24 @@
+package guru.springframework.spring6restmvc.model;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Relative change to a beer's quantity on hand: positive for stock received, negative for stock taken.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:15:53
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InventoryAdjustment {
+
+    @NotNull
+    private Integer delta;
+}
@@ -0,0 +1,26 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Quantity on hand right after an adjustment. {@code pendingDelta} is the part not yet written back to the database.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:15:54
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InventoryLevel {
+
+    private UUID beerId;
+    private int quantityOnHand;
+    private int pendingDelta;
+}
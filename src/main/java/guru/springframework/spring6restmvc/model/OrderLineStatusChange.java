@@ -0,0 +1,32 @@
+package guru.springframework.spring6restmvc.model;
+
+import guru.springframework.spring6restmvcapi.enums.BeerOrderLineStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One order line moving to a new status, as pushed to order event streams. {@code version} is the line's version
+ * after the change.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:18:20
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderLineStatusChange {
+
+    private UUID orderId;
+    private UUID customerId;
+    private UUID orderLineId;
+    private BeerOrderLineStatus status;
+    private Integer version;
+    private LocalDateTime changedDate;
+}
@@ -0,0 +1,47 @@
+package guru.springframework.spring6restmvc.model;
+
+import guru.springframework.spring6restmvc.exceptions.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row returned by a keyset (seek) query: the value of the sort column plus the id used
+ * as tie-breaker. Clients only ever see the opaque, URL-safe token produced by {@link #encode()}.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:02:10
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor(staticName = "of")
+public class PageCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final String key;
+    private final UUID id;
+
+    public String encode() {
+        String raw = key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // the id is the fixed-length suffix, so a separator inside the key is harmless
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new PageCursor(raw.substring(0, separator), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package guru.springframework.spring6restmvc.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6restmvc.domain.OutboxEvent;
+import guru.springframework.spring6restmvc.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves {@link OutboxEvent} rows to Kafka. Each poll claims the oldest {@code batch-size} unclaimed rows in one short
+ * transaction, stamping them with a {@code claim-timeout} lease so other replicas skip them. It then sends them all
+ * before waiting on any acknowledgement (so the producer can batch them), with no transaction or row lock held while
+ * it waits. A second short transaction deletes the acknowledged rows and releases the rest. Those are retried on the
+ * next poll, as are the rows of a relay that died mid-batch once their lease runs out, so delivery is at least once.
+ * <p>
+ * Enabled unless {@code app.outbox.enabled} is false.
+ * <p>
+ * Metrics: {@code outbox.published} / {@code outbox.failed} counters, an {@code outbox.relay.batch} timer, and the
+ * {@code outbox.pending} and {@code outbox.lag} (age of the oldest pending row, seconds) gauges.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:13:15
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration claimTimeout;
+    private final ScheduledExecutorService poller;
+
+    private final Counter published;
+    private final Counter failed;
+    private final Timer batchTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, KafkaTemplate<String, Object> kafkaTemplate,
+                       ObjectMapper objectMapper, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                       @Value("${app.outbox.poll-interval:200ms}") Duration pollInterval,
+                       @Value("${app.outbox.batch-size:100}") int batchSize,
+                       @Value("${app.outbox.send-timeout:10s}") Duration sendTimeout,
+                       @Value("${app.outbox.claim-timeout:1m}") Duration claimTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.claimTimeout = claimTimeout;
+        if (claimTimeout.compareTo(sendTimeout) <= 0)
+            log.warn("Outbox claim-timeout {} is not longer than send-timeout {}; a slow batch may be sent twice", claimTimeout, sendTimeout);
+        this.poller = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("outbox-relay").daemon().factory());
+
+        this.published = meterRegistry.counter("outbox.published");
+        this.failed = meterRegistry.counter("outbox.failed");
+        this.batchTimer = Timer.builder("outbox.relay.batch").description("Time to relay one outbox batch").register(meterRegistry);
+        meterRegistry.gauge("outbox.pending", pending);
+        meterRegistry.gauge("outbox.lag", lagMillis, lag -> lag.get() / 1000.0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        poller.scheduleWithFixedDelay(this::poll, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Outbox relay polling every {} in batches of {}", pollInterval, batchSize);
+    }
+
+    /**
+     * Relays one batch and returns how many rows were acknowledged and deleted.
+     */
+    public int relayBatch() {
+        return batchTimer.record(() -> {
+            List<OutboxEvent> batch = claim();
+            if (batch.isEmpty())
+                return 0;
+
+            List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                sends.add(send(event));
+            }
+            kafkaTemplate.flush();
+
+            long deadline = System.nanoTime() + sendTimeout.toNanos();
+            List<Long> acknowledged = new ArrayList<>(batch.size());
+            List<Long> unacknowledged = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (await(batch.get(i), sends.get(i), deadline)) {
+                    acknowledged.add(batch.get(i).getId());
+                } else {
+                    unacknowledged.add(batch.get(i).getId());
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!acknowledged.isEmpty())
+                    outboxEventRepository.deleteAllByIdInBatch(acknowledged);
+                if (!unacknowledged.isEmpty())
+                    outboxEventRepository.releaseClaims(unacknowledged);
+            });
+            published.increment(acknowledged.size());
+            failed.increment(unacknowledged.size());
+            return acknowledged.size();
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+    }
+
+    private void poll() {
+        try {
+            // keep going while full batches get through, so a backlog drains faster than one batch per interval
+            while (relayBatch() == batchSize) {
+                log.debug("Outbox relay draining backlog");
+            }
+            updateGauges();
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay poll failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Locks the oldest claimable rows, stamps them with a lease and commits, so the locks are held only for the claim.
+     */
+    private List<OutboxEvent> claim() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> claimable = outboxEventRepository
+                    .findByClaimedUntilIsNullOrClaimedUntilBeforeOrderByIdAsc(now, Limit.of(batchSize));
+            LocalDateTime claimedUntil = now.plus(claimTimeout);
+            claimable.forEach(event -> event.setClaimedUntil(claimedUntil));
+            return claimable;
+        });
+        return batch == null ? List.of() : batch;
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OutboxEvent event) {
+        try {
+            Object payload = objectMapper.readValue(event.getPayload(), Class.forName(event.getPayloadType()));
+            return kafkaTemplate.send(event.getTopic(), event.getEventKey(), payload);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private boolean await(OutboxEvent event, CompletableFuture<SendResult<String, Object>> send, long deadline) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Outbox event {} to {} not acknowledged, will retry: {}", event.getId(), event.getTopic(),
+                    e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void updateGauges() {
+        pending.set(outboxEventRepository.count());
+        lagMillis.set(outboxEventRepository.findFirstByOrderByIdAsc()
+                .map(oldest -> Duration.between(oldest.getCreatedDate(), LocalDateTime.now()).toMillis())
+                .orElse(0L));
+    }
+}
@@ -0,0 +1,39 @@
+package guru.springframework.spring6restmvc.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6restmvc.domain.OutboxEvent;
+import guru.springframework.spring6restmvc.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records a Kafka message in the outbox table. Joins the caller's transaction, so the message exists if and only if
+ * the change it describes was committed.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:13:12
+ */
+@RequiredArgsConstructor
+@Component
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional
+    public OutboxEvent append(String topic, String key, Object event) {
+        try {
+            return outboxEventRepository.save(OutboxEvent.builder()
+                    .topic(topic)
+                    .eventKey(key)
+                    .payloadType(event.getClass().getName())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + event.getClass().getSimpleName() + " for the outbox", e);
+        }
+    }
+}
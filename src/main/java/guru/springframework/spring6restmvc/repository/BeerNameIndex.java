@@ -0,0 +1,200 @@
+package guru.springframework.spring6restmvc.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * In-memory trigram index over {@code beer.beer_name}. A {@code %fragment%} LIKE cannot use the B-tree index, so
+ * name searches first ask this index for the ids whose lower-cased name contains the fragment and then fetch only
+ * those rows by primary key.
+ * <p>
+ * The index declines ({@link Optional#empty()}) whenever it cannot give an exact answer cheaply: before the first
+ * build, for fragments shorter than a trigram, for fragments carrying LIKE wildcards, and when the match set is too
+ * large to be worth an IN list. Callers then fall back to the LIKE query.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:07:05
+ */
+@Slf4j
+@Component
+public class BeerNameIndex {
+
+    static final int GRAM = 3;
+
+    private final EntityManager entityManager;
+    private final int maxCandidates;
+
+    private volatile Postings postings;
+    private volatile ConcurrentLinkedQueue<Consumer<Postings>> pendingDuringRebuild;
+
+    public BeerNameIndex(EntityManager entityManager, MeterRegistry meterRegistry,
+                         @Value("${app.beer-name-index.max-candidates:1000}") int maxCandidates) {
+        this.entityManager = entityManager;
+        this.maxCandidates = maxCandidates;
+        meterRegistry.gauge("beer.name.index.size", this, index -> index.postings == null ? 0 : index.postings.names.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        // writes arriving while the table is being read are replayed onto the fresh postings before the swap
+        ConcurrentLinkedQueue<Consumer<Postings>> pending = new ConcurrentLinkedQueue<>();
+        synchronized (this) {
+            pendingDuringRebuild = pending;
+        }
+        Postings fresh = new Postings();
+        try {
+            entityManager.createQuery("select b.id, b.beerName from Beer b", Object[].class)
+                    .getResultList()
+                    .forEach(row -> fresh.put((UUID) row[0], (String) row[1]));
+        } catch (RuntimeException e) {
+            // searches keep using LIKE until the next successful rebuild
+            log.warn("Could not build beer name index: {}", e.getMessage());
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+            return;
+        }
+        synchronized (this) {
+            pending.forEach(change -> change.accept(fresh));
+            postings = fresh;
+            pendingDuringRebuild = null;
+        }
+        log.info("Beer name index built: {} beers, {} trigrams in {} ms", fresh.names.size(), fresh.byGram.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void put(UUID beerId, String beerName) {
+        apply(postings -> postings.put(beerId, beerName));
+    }
+
+    public void remove(UUID beerId) {
+        apply(postings -> postings.remove(beerId));
+    }
+
+    /**
+     * Re-reads the names of the given beers, dropping those that no longer exist. Used when another replica reports
+     * a change we only know the id of.
+     */
+    public void refresh(Collection<UUID> beerIds) {
+        if (beerIds.isEmpty())
+            return;
+        Set<UUID> missing = new HashSet<>(beerIds);
+        entityManager.createQuery("select b.id, b.beerName from Beer b where b.id in :ids", Object[].class)
+                .setParameter("ids", beerIds)
+                .getResultList()
+                .forEach(row -> {
+                    missing.remove((UUID) row[0]);
+                    put((UUID) row[0], (String) row[1]);
+                });
+        missing.forEach(this::remove);
+    }
+
+    /**
+     * Ids of the beers whose name contains {@code fragment}, ignoring case, or empty when the caller should fall
+     * back to a LIKE query.
+     */
+    public Optional<Set<UUID>> candidates(String fragment) {
+        Postings current = postings;
+        if (current == null || fragment == null || fragment.length() < GRAM
+                || fragment.indexOf('%') >= 0 || fragment.indexOf('_') >= 0)
+            return Optional.empty();
+
+        String needle = normalize(fragment);
+        List<Set<UUID>> lists = new ArrayList<>();
+        for (String gram : grams(needle)) {
+            Set<UUID> ids = current.byGram.get(gram);
+            if (ids == null)
+                return Optional.of(Set.of());
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        // walk the rarest trigram's postings; the final contains() check removes trigram-order false positives
+        Set<UUID> matches = new HashSet<>();
+        for (UUID id : lists.getFirst()) {
+            String name = current.names.get(id);
+            if (name != null && name.contains(needle) && inAll(lists, id)) {
+                matches.add(id);
+                if (matches.size() > maxCandidates)
+                    return Optional.empty();
+            }
+        }
+        return Optional.of(matches);
+    }
+
+    public boolean isReady() {
+        return postings != null;
+    }
+
+    private synchronized void apply(Consumer<Postings> change) {
+        if (postings != null)
+            change.accept(postings);
+        if (pendingDuringRebuild != null)
+            pendingDuringRebuild.add(change);
+    }
+
+    private static boolean inAll(List<Set<UUID>> lists, UUID id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id))
+                return false;
+        }
+        return true;
+    }
+
+    static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> grams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static class Postings {
+        final Map<String, Set<UUID>> byGram = new ConcurrentHashMap<>();
+        final Map<UUID, String> names = new ConcurrentHashMap<>();
+
+        void put(UUID id, String beerName) {
+            remove(id);
+            if (beerName == null)
+                return;
+            String normalized = normalize(beerName);
+            names.put(id, normalized);
+            grams(normalized).forEach(gram -> byGram.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id));
+        }
+
+        void remove(UUID id) {
+            String old = names.remove(id);
+            if (old == null)
+                return;
+            grams(old).forEach(gram -> byGram.computeIfPresent(gram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            }));
+        }
+    }
+}
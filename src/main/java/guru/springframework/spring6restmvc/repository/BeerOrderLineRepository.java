@@ -1,8 +1,15 @@
 package guru.springframework.spring6restmvc.repository;
 
 import guru.springframework.spring6restmvc.domain.BeerOrderLine;
+import guru.springframework.spring6restmvc.model.OrderLineStatusChange;
+import guru.springframework.spring6restmvcapi.enums.BeerOrderLineStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,4 +20,24 @@ import java.util.UUID;
  */
 public interface BeerOrderLineRepository extends JpaRepository<BeerOrderLine, UUID> {
 
+    /**
+     * Moves the given lines to {@code status} with their full order quantity allocated, in one statement. Lines
+     * already in {@code status} are left alone.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BeerOrderLine l set l.status = :status, l.quantityAllocated = l.orderQuantity, " +
+            "l.version = l.version + 1, l.lastModifiedDate = :now " +
+            "where l.id in :ids and l.status <> :status")
+    int updateStatusAllocated(Collection<UUID> ids, BeerOrderLineStatus status, LocalDateTime now);
+
+    /**
+     * The lines among {@code ids} that {@link #updateStatusAllocated} moved to {@code status} at {@code modifiedDate},
+     * with their order and customer, for pushing to order event streams.
+     */
+    @Query("select new guru.springframework.spring6restmvc.model.OrderLineStatusChange(" +
+            "o.id, c.id, l.id, l.status, l.version, l.lastModifiedDate) " +
+            "from BeerOrderLine l join l.beerOrder o left join o.customer c " +
+            "where l.id in :ids and l.status = :status and l.lastModifiedDate = :modifiedDate")
+    List<OrderLineStatusChange> findStatusChanges(Collection<UUID> ids, BeerOrderLineStatus status,
+                                                  LocalDateTime modifiedDate);
 }
@@ -1,8 +1,18 @@
 package guru.springframework.spring6restmvc.repository;
 
 import guru.springframework.spring6restmvc.domain.BeerOrder;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -10,5 +20,35 @@ import java.util.UUID;
  * @since 03/08/2024
  */
 public interface BeerOrderRepository extends JpaRepository<BeerOrder, UUID> {
-    
+
+    Page<BeerOrder> findByCustomerId(UUID customerId, Pageable pageable);
+
+    /**
+     * Newest first ids of a customer's orders, for keyset paging. Both this and {@link #findIdsByCustomerBefore} are
+     * answered from the {@code (customer_id, created_date, id)} index alone, however many orders the customer has.
+     * {@code created_date} is NOT NULL (V13), so every order has a place in this order and in the next-page cursor.
+     */
+    @Query("select o.id from BeerOrder o where o.customer.id = :customerId order by o.createdDate desc, o.id desc")
+    List<UUID> findIdsByCustomer(@Param("customerId") UUID customerId, Limit limit);
+
+    @Query("select o.id from BeerOrder o where o.customer.id = :customerId " +
+            "and (o.createdDate < :createdDate or (o.createdDate = :createdDate and o.id < :id)) " +
+            "order by o.createdDate desc, o.id desc")
+    List<UUID> findIdsByCustomerBefore(@Param("customerId") UUID customerId, @Param("createdDate") LocalDateTime createdDate,
+                                       @Param("id") UUID id, Limit limit);
+
+    // listings page over ids only, then load the whole graph for that page with findGraphByIdIn
+    @Query(value = "select o.id from BeerOrder o", countQuery = "select count(o) from BeerOrder o")
+    Page<UUID> findPageOfIds(Pageable pageable);
+
+    @Query("select o.id from BeerOrder o")
+    Slice<UUID> findSliceOfIds(Pageable pageable);
+
+    /**
+     * Orders with their customer, shipment, lines and the lines' beers in one statement. Fetch-joining the lines
+     * would break database paging, which is why this takes the ids of an already paged query.
+     */
+    @EntityGraph(attributePaths = {"customer", "beerOrderShipment", "orderLines", "orderLines.beer"})
+    @Query("select o from BeerOrder o where o.id in :ids")
+    List<BeerOrder> findGraphByIdIn(@Param("ids") Collection<UUID> ids);
 }
@@ -2,11 +2,19 @@ package guru.springframework.spring6restmvc.repository;
 
 import guru.springframework.spring6restmvc.domain.Beer;
 import guru.springframework.spring6restmvcapi.enums.BeerStyle;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 
 /**
@@ -18,5 +26,36 @@ public interface BeerRepository extends JpaRepository<Beer, UUID>, BeerRepositor
     Page<Beer> findByBeerStyle(BeerStyle beerStyle, Pageable pageable);
     Page<Beer> findByBeerNameLikeIgnoreCaseAndBeerStyle(String beerName, BeerStyle beerStyle, Pageable pageable);
 
+    // Slice variants skip the count query that backs Page
+    Slice<Beer> findSliceBy(Pageable pageable);
+    Slice<Beer> findSliceByBeerNameLikeIgnoreCase(String beerName, Pageable pageable);
+    Slice<Beer> findSliceByBeerStyle(BeerStyle beerStyle, Pageable pageable);
+    Slice<Beer> findSliceByBeerNameLikeIgnoreCaseAndBeerStyle(String beerName, BeerStyle beerStyle, Pageable pageable);
+
+    long countByBeerNameLikeIgnoreCase(String beerName);
+    long countByBeerStyle(BeerStyle beerStyle);
+    long countByBeerNameLikeIgnoreCaseAndBeerStyle(String beerName, BeerStyle beerStyle);
+
+    // name searches resolved through BeerNameIndex
+    Page<Beer> findByIdIn(Collection<UUID> ids, Pageable pageable);
+    Page<Beer> findByIdInAndBeerStyle(Collection<UUID> ids, BeerStyle beerStyle, Pageable pageable);
+    Slice<Beer> findSliceByIdIn(Collection<UUID> ids, Pageable pageable);
+    Slice<Beer> findSliceByIdInAndBeerStyle(Collection<UUID> ids, BeerStyle beerStyle, Pageable pageable);
+    long countByIdIn(Collection<UUID> ids);
+    long countByIdInAndBeerStyle(Collection<UUID> ids, BeerStyle beerStyle);
+
+    /**
+     * Forward-only, read-only cursor over the catalogue for exports. Must be consumed inside a transaction and
+     * closed. {@code beerName} is expected in lower case.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select b from Beer b where (:beerName is null or lower(b.beerName) like concat('%', :beerName, '%')) " +
+            "and (:beerStyle is null or b.beerStyle = :beerStyle) order by b.beerName, b.id")
+    Stream<Beer> streamForExport(@Param("beerName") String beerName, @Param("beerStyle") BeerStyle beerStyle);
+
 }
 
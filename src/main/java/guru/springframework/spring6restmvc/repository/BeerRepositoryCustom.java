@@ -1,6 +1,8 @@
 package guru.springframework.spring6restmvc.repository;
 
 import guru.springframework.spring6restmvc.domain.Beer;
+import guru.springframework.spring6restmvc.model.PageCursor;
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
 import guru.springframework.spring6restmvcapi.model.BeerSearchCriteria;
 
 import java.util.List;
@@ -11,4 +13,10 @@ import java.util.List;
  */
 public interface BeerRepositoryCustom {
     List<Beer> findBySearchCriteria(BeerSearchCriteria criteria);
+
+    /**
+     * Keyset page ordered by (beerName, id): returns up to {@code limit} beers positioned strictly after
+     * {@code after}, or from the start when {@code after} is null.
+     */
+    List<Beer> findBeersAfter(String beerName, BeerStyle beerStyle, PageCursor after, int limit);
 }
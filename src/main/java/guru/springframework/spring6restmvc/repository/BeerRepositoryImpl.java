@@ -1,15 +1,21 @@
 package guru.springframework.spring6restmvc.repository;
 
 import guru.springframework.spring6restmvc.domain.Beer;
+import guru.springframework.spring6restmvc.model.PageCursor;
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
 import guru.springframework.spring6restmvcapi.model.BeerSearchCriteria;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.ObjectProvider;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * @author john
@@ -18,9 +24,11 @@ import java.util.List;
     public class BeerRepositoryImpl implements BeerRepositoryCustom {
 
     private EntityManager entityManager;
+    private ObjectProvider<BeerNameIndex> beerNameIndex;
 
-    public BeerRepositoryImpl(EntityManager entityManager) {
+    public BeerRepositoryImpl(EntityManager entityManager, ObjectProvider<BeerNameIndex> beerNameIndex) {
         this.entityManager = entityManager;
+        this.beerNameIndex = beerNameIndex;
     }
 
     @Override
@@ -30,6 +38,11 @@ import java.util.List;
         Root<Beer> beerRoot = criteriaQuery.from(Beer.class);
         List<Predicate> predicates = new ArrayList<>();
         if (criteria.getName()!= null) {
+            Optional<Set<UUID>> candidates = nameCandidates(criteria.getName());
+            if (candidates.isPresent() && candidates.get().isEmpty())
+                return List.of();
+            // the LIKE stays so case-sensitivity is unchanged; the id list lets the database use the primary key
+            candidates.ifPresent(ids -> predicates.add(beerRoot.get("id").in(ids)));
             predicates.add(criteriaBuilder.like(beerRoot.get("beerName"), "%" + criteria.getName() + "%"));
         }
         if (criteria.getStyle()!= null) {
@@ -41,4 +54,39 @@ import java.util.List;
         criteriaQuery.where(criteriaBuilder.and(predicates.toArray(new Predicate[0])));
         return entityManager.createQuery(criteriaQuery).getResultList();
     }
+
+    @Override
+    public List<Beer> findBeersAfter(String beerName, BeerStyle beerStyle, PageCursor after, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Beer> criteriaQuery = criteriaBuilder.createQuery(Beer.class);
+        Root<Beer> beerRoot = criteriaQuery.from(Beer.class);
+        List<Predicate> predicates = new ArrayList<>();
+        if (beerName != null) {
+            Optional<Set<UUID>> candidates = nameCandidates(beerName);
+            if (candidates.isPresent() && candidates.get().isEmpty())
+                return List.of();
+            predicates.add(candidates.isPresent()
+                    ? beerRoot.get("id").in(candidates.get())
+                    : criteriaBuilder.like(criteriaBuilder.lower(beerRoot.<String>get("beerName")), "%" + beerName.toLowerCase() + "%"));
+        }
+        if (beerStyle != null) {
+            predicates.add(criteriaBuilder.equal(beerRoot.get("beerStyle"), beerStyle));
+        }
+        if (after != null) {
+            // seek predicate: (beerName > :name) or (beerName = :name and id > :id)
+            predicates.add(criteriaBuilder.or(
+                    criteriaBuilder.greaterThan(beerRoot.<String>get("beerName"), after.getKey()),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(beerRoot.get("beerName"), after.getKey()),
+                            criteriaBuilder.greaterThan(beerRoot.<UUID>get("id"), after.getId()))));
+        }
+        criteriaQuery.where(criteriaBuilder.and(predicates.toArray(new Predicate[0])))
+                .orderBy(criteriaBuilder.asc(beerRoot.get("beerName")), criteriaBuilder.asc(beerRoot.get("id")));
+        return entityManager.createQuery(criteriaQuery).setMaxResults(limit).getResultList();
+    }
+
+    private Optional<Set<UUID>> nameCandidates(String beerName) {
+        BeerNameIndex index = beerNameIndex.getIfAvailable();
+        return index == null ? Optional.empty() : index.candidates(beerName);
+    }
 }
@@ -0,0 +1,40 @@
+package guru.springframework.spring6restmvc.repository;
+
+import guru.springframework.spring6restmvc.domain.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:13:08
+ */
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest events not claimed by a relay (or whose claim ran out before {@code now}), locked for the claiming
+     * transaction. Rows another replica is claiming at the same moment are skipped (lock timeout -2 is Hibernate's
+     * SKIP LOCKED) rather than waited for.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<OutboxEvent> findByClaimedUntilIsNullOrClaimedUntilBeforeOrderByIdAsc(LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = null where e.id in :ids")
+    int releaseClaims(@Param("ids") Collection<Long> ids);
+
+    Optional<OutboxEvent> findFirstByOrderByIdAsc();
+}
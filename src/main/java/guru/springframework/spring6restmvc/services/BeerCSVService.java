@@ -4,6 +4,8 @@ import guru.springframework.spring6restmvc.model.BeerCSVRecord;
 
 import java.io.File;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * @author john
@@ -11,5 +13,20 @@ import java.util.List;
  */
 public interface BeerCSVService {
 
+    /**
+     * Parses the whole file into memory. Fine for the bundled sample data; use {@link #streamCSV(File)} for feeds.
+     */
     List<BeerCSVRecord> convertCSV(File csvFile);
+
+    /**
+     * Parses the file lazily, one record at a time. The stream holds the file open and must be closed.
+     */
+    Stream<BeerCSVRecord> streamCSV(File csvFile);
+
+    /**
+     * Parses the file lazily and applies {@code transform} to the records in parallel, with a bounded read-ahead.
+     * Results come out in file order, and an exception thrown by {@code transform} surfaces at the position of the
+     * record that caused it. The stream holds the file open and must be closed.
+     */
+    <T> Stream<T> streamCSV(File csvFile, Function<BeerCSVRecord, T> transform);
 }
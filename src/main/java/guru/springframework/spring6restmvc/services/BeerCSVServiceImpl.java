@@ -6,9 +6,24 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author john
@@ -17,15 +32,131 @@ import java.util.List;
 @Slf4j
 @Service
 public class BeerCSVServiceImpl implements BeerCSVService {
+
+    // records handed to one mapping task, and how many such tasks may run ahead of the consumer
+    static final int BATCH_SIZE = 64;
+    static final int BATCHES_IN_FLIGHT = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
     @Override
     public List<BeerCSVRecord> convertCSV(File csvFile) {
         log.info("Loading CSV file {}", csvFile.getName());
-        try {
-            List<BeerCSVRecord> records = new CsvToBeanBuilder<BeerCSVRecord>(new FileReader(csvFile)).withType(BeerCSVRecord.class).build().parse();
+        try (Reader reader = openReader(csvFile)) {
+            List<BeerCSVRecord> records = new CsvToBeanBuilder<BeerCSVRecord>(reader).withType(BeerCSVRecord.class).build().parse();
             log.info("{} records loaded", records.size());
             return records;
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
+
+    @Override
+    public Stream<BeerCSVRecord> streamCSV(File csvFile) {
+        log.info("Streaming CSV file {}", csvFile.getName());
+        Reader reader = openReader(csvFile);
+        Iterator<BeerCSVRecord> records = iterator(reader);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(records, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> close(reader));
+    }
+
+    @Override
+    public <T> Stream<T> streamCSV(File csvFile, Function<BeerCSVRecord, T> transform) {
+        log.info("Streaming CSV file {}", csvFile.getName());
+        Reader reader = openReader(csvFile);
+        OrderedTransformIterator<T> results = new OrderedTransformIterator<>(iterator(reader), transform);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    results.cancel();
+                    close(reader);
+                });
+    }
+
+    private Iterator<BeerCSVRecord> iterator(Reader reader) {
+        try {
+            return new CsvToBeanBuilder<BeerCSVRecord>(reader).withType(BeerCSVRecord.class).build().iterator();
+        } catch (RuntimeException e) {
+            close(reader);
+            throw e;
+        }
+    }
+
+    private Reader openReader(File csvFile) {
+        try {
+            return Files.newBufferedReader(csvFile.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void close(Reader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            log.warn("Could not close CSV reader", e);
+        }
+    }
+
+    /**
+     * Pulls records on the consumer's thread and maps them in batches on the common pool. Batches are queued in
+     * submission order and joined from the head, so output order matches input order while at most
+     * {@link #BATCHES_IN_FLIGHT} batches are buffered.
+     */
+    private static final class OrderedTransformIterator<T> implements Iterator<T> {
+        private final Iterator<BeerCSVRecord> source;
+        private final Function<BeerCSVRecord, T> transform;
+        private final Deque<CompletableFuture<List<Outcome<T>>>> inFlight = new ArrayDeque<>();
+        private Iterator<Outcome<T>> current = Collections.emptyIterator();
+
+        OrderedTransformIterator(Iterator<BeerCSVRecord> source, Function<BeerCSVRecord, T> transform) {
+            this.source = source;
+            this.transform = transform;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                fill();
+                if (inFlight.isEmpty())
+                    return false;
+                current = inFlight.poll().join().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Outcome<T> outcome = current.next();
+            if (outcome.error() != null)
+                throw outcome.error();
+            return outcome.value();
+        }
+
+        void cancel() {
+            inFlight.forEach(batch -> batch.cancel(false));
+            inFlight.clear();
+        }
+
+        private void fill() {
+            while (inFlight.size() < BATCHES_IN_FLIGHT && source.hasNext()) {
+                List<BeerCSVRecord> batch = new ArrayList<>(BATCH_SIZE);
+                while (batch.size() < BATCH_SIZE && source.hasNext()) {
+                    batch.add(source.next());
+                }
+                inFlight.add(CompletableFuture.supplyAsync(() -> batch.stream().map(this::apply).toList(), ForkJoinPool.commonPool()));
+            }
+        }
+
+        // failures are held per record so the records before a bad one are still delivered first
+        private Outcome<T> apply(BeerCSVRecord csvRecord) {
+            try {
+                return new Outcome<>(transform.apply(csvRecord), null);
+            } catch (RuntimeException e) {
+                return new Outcome<>(null, e);
+            }
+        }
+    }
+
+    private record Outcome<T>(T value, RuntimeException error) {
+    }
 }
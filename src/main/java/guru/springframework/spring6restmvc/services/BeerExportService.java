@@ -0,0 +1,21 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerExportFormat;
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:08:42
+ */
+public interface BeerExportService {
+
+    /**
+     * Writes every matching beer to {@code out}, ordered by name, and returns the number of beers written.
+     */
+    long exportBeers(Optional<String> beerName, Optional<BeerStyle> beerStyle, BeerExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,102 @@
+package guru.springframework.spring6restmvc.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.opencsv.CSVWriter;
+import guru.springframework.spring6restmvc.domain.Beer;
+import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.BeerExportFormat;
+import guru.springframework.spring6restmvc.repository.BeerRepository;
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
+import guru.springframework.spring6restmvcapi.model.BeerDTO;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Streams the catalogue from a single forward-only query. Rows are written as they are read and the persistence
+ * context is cleared every {@link #CLEAR_EVERY} beers, so memory use does not grow with the catalogue.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:08:45
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class BeerExportServiceImpl implements BeerExportService {
+
+    static final int CLEAR_EVERY = 500;
+    static final String[] CSV_HEADER = {"id", "version", "beerName", "beerStyle", "upc", "quantityOnHand", "price",
+            "createdDate", "updateDate"};
+
+    private final BeerRepository beerRepository;
+    private final BeerMapper beerMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    @Override
+    public long exportBeers(Optional<String> beerName, Optional<BeerStyle> beerStyle, BeerExportFormat format, OutputStream out) throws IOException {
+        log.info("Export beers as {} - in service", format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long written = 0;
+        try (Stream<Beer> beers = beerRepository.streamForExport(beerName.map(String::toLowerCase).orElse(null), beerStyle.orElse(null))) {
+            RowWriter rowWriter = format == BeerExportFormat.CSV ? csvWriter(writer) : ndjsonWriter(writer);
+            Iterator<Beer> iterator = beers.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.write(beerMapper.beerToBeerDTO(iterator.next()));
+                if (++written % CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        log.info("Exported {} beers", written);
+        return written;
+    }
+
+    private RowWriter ndjsonWriter(Writer writer) {
+        ObjectWriter objectWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return beer -> {
+            objectWriter.writeValue(writer, beer);
+            writer.write('\n');
+        };
+    }
+
+    private RowWriter csvWriter(Writer writer) {
+        // not closed: closing it would close the response stream under the caller
+        CSVWriter csvWriter = new CSVWriter(writer);
+        csvWriter.writeNext(CSV_HEADER, false);
+        return beer -> csvWriter.writeNext(new String[]{
+                Objects.toString(beer.getId(), ""),
+                Objects.toString(beer.getVersion(), ""),
+                beer.getBeerName(),
+                Objects.toString(beer.getBeerStyle(), ""),
+                beer.getUpc(),
+                Objects.toString(beer.getQuantityOnHand(), ""),
+                beer.getPrice() == null ? "" : beer.getPrice().toPlainString(),
+                Objects.toString(beer.getCreatedDate(), ""),
+                Objects.toString(beer.getUpdateDate(), "")}, false);
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(BeerDTO beer) throws IOException;
+    }
+}
@@ -0,0 +1,23 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerImportJob;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:09:36
+ */
+public interface BeerImportService {
+
+    /**
+     * Queues the CSV for import in the background and returns the job to poll.
+     */
+    BeerImportJob startImport(MultipartFile file) throws IOException;
+
+    Optional<BeerImportJob> getJob(UUID jobId);
+}
@@ -0,0 +1,213 @@
+package guru.springframework.spring6restmvc.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.springframework.spring6restmvc.cache.BeerListCache;
+import guru.springframework.spring6restmvc.cache.CacheInvalidationPublisher;
+import guru.springframework.spring6restmvc.domain.Beer;
+import guru.springframework.spring6restmvc.events.BeersImportedEvent;
+import guru.springframework.spring6restmvc.mappers.BeerCSVRecordMapper;
+import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvc.model.BeerImportJob;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Bulk CSV import. Rows are inserted with JDBC batches, one transaction per chunk, and each committed chunk raises a
+ * single cache invalidation and a single {@link BeersImportedEvent} instead of the per-row flush, cache clear and
+ * audit event that {@link BeerService#save} costs. A failing chunk stops the job; chunks committed before it stay.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:09:40
+ */
+@Slf4j
+@Service
+public class BeerImportServiceImpl implements BeerImportService {
+
+    static final String INSERT_BEER = "insert into beer (id, version, beer_name, beer_style, upc, quantity_on_hand, price, " +
+            "created_date, update_date) values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final BeerCSVService beerCSVService;
+    private final BeerCSVRecordMapper beerCSVRecordMapper;
+    private final BeerMapper beerMapper;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final BeerListCache beerListCache;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final AsyncTaskExecutor taskExecutor;
+    private final int chunkSize;
+
+    private final Cache<UUID, BeerImportJob> jobs = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(Duration.ofHours(24))
+            .build();
+
+    public BeerImportServiceImpl(BeerCSVService beerCSVService, BeerCSVRecordMapper beerCSVRecordMapper, BeerMapper beerMapper,
+                                 Validator validator, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 CacheManager cacheManager, BeerListCache beerListCache,
+                                 CacheInvalidationPublisher cacheInvalidationPublisher,
+                                 ApplicationEventPublisher applicationEventPublisher,
+                                 @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor taskExecutor,
+                                 @Value("${app.beer-import.chunk-size:500}") int chunkSize) {
+        this.beerCSVService = beerCSVService;
+        this.beerCSVRecordMapper = beerCSVRecordMapper;
+        this.beerMapper = beerMapper;
+        this.validator = validator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.beerListCache = beerListCache;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BeerImportJob startImport(MultipartFile file) throws IOException {
+        // the multipart upload is removed once the request completes, so the job works from its own copy
+        Path csvFile = Files.createTempFile("beer-import-", ".csv");
+        file.transferTo(csvFile);
+
+        BeerImportJob job = BeerImportJob.builder()
+                .id(UUID.randomUUID())
+                .status(BeerImportJob.Status.QUEUED)
+                .fileName(file.getOriginalFilename())
+                .createdDate(LocalDateTime.now())
+                .build();
+        jobs.put(job.getId(), job);
+        log.info("Beer import {} queued for {}", job.getId(), job.getFileName());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        taskExecutor.execute(() -> runImport(job.getId(), csvFile, authentication));
+        return job;
+    }
+
+    @Override
+    public Optional<BeerImportJob> getJob(UUID jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    void runImport(UUID jobId, Path csvFile, Authentication authentication) {
+        update(jobId, job -> job.toBuilder().status(BeerImportJob.Status.RUNNING).build());
+        long rowsRead = 0;
+        long rowsImported = 0;
+        int chunks = 0;
+        // mapping and validation run in parallel inside the stream; rows still arrive in file order
+        try (Stream<ParsedRow> rows = beerCSVService.streamCSV(csvFile.toFile(), this::parse)) {
+            List<Beer> chunk = new ArrayList<>(chunkSize);
+            for (ParsedRow row : (Iterable<ParsedRow>) rows::iterator) {
+                rowsRead++;
+                if (!row.valid()) {
+                    log.warn("Beer import {}: skipping invalid row {}", jobId, row.csvRecord().getRow());
+                    continue;
+                }
+                chunk.add(row.beer());
+                if (chunk.size() == chunkSize) {
+                    rowsImported += insertChunk(jobId, chunk, authentication);
+                    chunk = new ArrayList<>(chunkSize);
+                    report(jobId, rowsRead, rowsImported, ++chunks);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                rowsImported += insertChunk(jobId, chunk, authentication);
+                chunks++;
+            }
+            report(jobId, rowsRead, rowsImported, chunks);
+            update(jobId, job -> job.toBuilder().status(BeerImportJob.Status.COMPLETED).finishedDate(LocalDateTime.now()).build());
+            log.info("Beer import {} completed: {} of {} rows in {} chunks", jobId, rowsImported, rowsRead, chunks);
+        } catch (RuntimeException e) {
+            log.error("Beer import {} failed after {} chunks", jobId, chunks, e);
+            report(jobId, rowsRead, rowsImported, chunks);
+            update(jobId, job -> job.toBuilder().status(BeerImportJob.Status.FAILED).error(e.getMessage())
+                    .finishedDate(LocalDateTime.now()).build());
+        } finally {
+            try {
+                Files.deleteIfExists(csvFile);
+            } catch (IOException e) {
+                log.warn("Could not delete {}", csvFile, e);
+            }
+        }
+    }
+
+    private int insertChunk(UUID jobId, List<Beer> chunk, Authentication authentication) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_BEER, chunk, chunk.size(), (ps, beer) -> {
+                    ps.setString(1, beer.getId().toString());
+                    ps.setInt(2, beer.getVersion());
+                    ps.setString(3, beer.getBeerName());
+                    ps.setInt(4, beer.getBeerStyle().ordinal());
+                    ps.setString(5, beer.getUpc());
+                    ps.setObject(6, beer.getQuantityOnHand());
+                    ps.setBigDecimal(7, beer.getPrice());
+                    ps.setTimestamp(8, Timestamp.valueOf(beer.getCreatedDate()));
+                    ps.setTimestamp(9, Timestamp.valueOf(beer.getUpdateDate()));
+                }));
+
+        if (cacheManager.getCache("beerCountCache") != null)
+            cacheManager.getCache("beerCountCache").clear();
+        beerListCache.clear();
+        cacheInvalidationPublisher.clear("beerCountCache");
+        cacheInvalidationPublisher.clear(BeerListCache.CACHE_NAME);
+        chunk.forEach(beer -> cacheInvalidationPublisher.beerNameChanged(beer.getId()));
+        applicationEventPublisher.publishEvent(new BeersImportedEvent(jobId, List.copyOf(chunk), authentication));
+        return chunk.size();
+    }
+
+    private ParsedRow parse(BeerCSVRecord csvRecord) {
+        Beer beer = toBeer(csvRecord);
+        return new ParsedRow(csvRecord, beer, validator.validate(beer).isEmpty());
+    }
+
+    private Beer toBeer(BeerCSVRecord csvRecord) {
+        Beer beer = beerMapper.beerDTOToBeer(beerCSVRecordMapper.beerCSVRecordToBeerDTO(csvRecord));
+        LocalDateTime now = LocalDateTime.now();
+        beer.setId(UUID.randomUUID());
+        beer.setVersion(0);
+        beer.setCreatedDate(now);
+        beer.setUpdateDate(now);
+        return beer;
+    }
+
+    private void report(UUID jobId, long rowsRead, long rowsImported, int chunks) {
+        update(jobId, job -> job.toBuilder().rowsRead(rowsRead).rowsImported(rowsImported).chunksCommitted(chunks).build());
+    }
+
+    private void update(UUID jobId, UnaryOperator<BeerImportJob> change) {
+        jobs.asMap().computeIfPresent(jobId, (id, job) -> change.apply(job));
+    }
+
+    private record ParsedRow(BeerCSVRecord csvRecord, Beer beer, boolean valid) {
+    }
+}
@@ -2,6 +2,7 @@ package guru.springframework.spring6restmvc.services;
 
 import guru.springframework.spring6restmvcapi.model.BeerOrderLineDTO;
 
+import java.util.Collection;
 import java.util.UUID;
 
 /**
@@ -15,4 +16,12 @@ public interface BeerOrderLineService {
     BeerOrderLineDTO save(BeerOrderLineDTO beerOrderLineDTO);
     BeerOrderLineDTO update(UUID id, BeerOrderLineDTO beerOrderLineDTO);
     void delete(UUID id);
+
+    /**
+     * Marks the given lines {@code COMPLETE} with one set-based update, whatever version they were read at. Duplicate
+     * ids are applied once.
+     *
+     * @return the number of lines that changed
+     */
+    int completeLines(Collection<BeerOrderLineDTO> beerOrderLines);
 }
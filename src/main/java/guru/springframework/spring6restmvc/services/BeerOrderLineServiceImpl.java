@@ -1,16 +1,27 @@
 package guru.springframework.spring6restmvc.services;
 
+import guru.springframework.spring6restmvc.domain.BeerOrderLine;
 import guru.springframework.spring6restmvc.exceptions.NotFoundException;
 import guru.springframework.spring6restmvc.mappers.BeerMapper;
 import guru.springframework.spring6restmvc.mappers.BeerOrderLineMapper;
+import guru.springframework.spring6restmvc.model.OrderLineStatusChange;
 import guru.springframework.spring6restmvc.repository.BeerOrderLineRepository;
+import guru.springframework.spring6restmvc.streams.OrderLineEventHub;
+import guru.springframework.spring6restmvcapi.enums.BeerOrderLineStatus;
 import guru.springframework.spring6restmvcapi.model.BeerOrderLineDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Author:john
@@ -25,6 +36,7 @@ public class BeerOrderLineServiceImpl implements BeerOrderLineService {
     private final BeerOrderLineRepository beerOrderLineRepository;
     private final BeerOrderLineMapper beerOrderLineMapper;
     private final BeerMapper beerMapper;
+    private final OrderLineEventHub orderLineEventHub;
 
     @Override
     public BeerOrderLineDTO findById(UUID id) {
@@ -48,16 +60,36 @@ public class BeerOrderLineServiceImpl implements BeerOrderLineService {
         log.info("Updating BeerOrderLine: {}", beerOrderLineDTO);
         return beerOrderLineRepository.findById(id)
                 .map(foundOrderLine -> {
+            BeerOrderLineStatus previousStatus = foundOrderLine.getStatus();
             foundOrderLine.setBeer(beerMapper.beerDTOToBeer(beerOrderLineDTO.getBeer()));
             foundOrderLine.setOrderQuantity(beerOrderLineDTO.getOrderQuantity());
             foundOrderLine.setStatus(beerOrderLineDTO.getStatus());
             foundOrderLine.setQuantityAllocated(beerOrderLineDTO.getQuantityAllocated());
-            return foundOrderLine;
-        }).map(beerOrderLineRepository::save)
-                .map(beerOrderLineMapper::beerOrderLineToBeerOrderLineDTO)
+            BeerOrderLine saved = beerOrderLineRepository.save(foundOrderLine);
+            if (!Objects.equals(previousStatus, saved.getStatus()))
+                publishStatusChange(saved);
+            return saved;
+        }).map(beerOrderLineMapper::beerOrderLineToBeerOrderLineDTO)
                 .orElseThrow(NotFoundException::new);
     }
 
+    @Transactional
+    @Override
+    public int completeLines(Collection<BeerOrderLineDTO> beerOrderLines) {
+        // no version guard: a prepared drink completes its line even if the order was edited while it was being made,
+        // and the version the event carries is stale after any such edit
+        Set<UUID> ids = beerOrderLines.stream().map(BeerOrderLineDTO::getId).collect(Collectors.toCollection(LinkedHashSet::new));
+
+        // the column keeps microseconds; truncating lets the status change query match the stamp exactly
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int updated = beerOrderLineRepository.updateStatusAllocated(ids, BeerOrderLineStatus.COMPLETE, now);
+        if (updated < ids.size())
+            log.info("Completed {} of {} order lines; the rest were already complete or are gone", updated, ids.size());
+        if (updated > 0 && orderLineEventHub.hasSubscribers())
+            orderLineEventHub.publish(beerOrderLineRepository.findStatusChanges(ids, BeerOrderLineStatus.COMPLETE, now));
+        return updated;
+    }
+
     @Transactional
     @Override
     public void delete(UUID id) {
@@ -67,4 +99,19 @@ public class BeerOrderLineServiceImpl implements BeerOrderLineService {
         else
             throw new NotFoundException("BeerOrderLine not found with ID: " + id);
     }
+
+    private void publishStatusChange(BeerOrderLine line) {
+        if (line.getBeerOrder() == null || !orderLineEventHub.hasSubscribers())
+            return;
+        // version and timestamp are only assigned on flush, and subscribers should see what was stored
+        beerOrderLineRepository.flush();
+        orderLineEventHub.publish(OrderLineStatusChange.builder()
+                .orderId(line.getBeerOrder().getId())
+                .customerId(line.getBeerOrder().getCustomer() != null ? line.getBeerOrder().getCustomer().getId() : null)
+                .orderLineId(line.getId())
+                .status(line.getStatus())
+                .version(line.getVersion())
+                .changedDate(line.getLastModifiedDate())
+                .build());
+    }
 }
@@ -1,8 +1,10 @@
 package guru.springframework.spring6restmvc.services;
 
+import guru.springframework.spring6restmvc.model.CursorPage;
 import guru.springframework.spring6restmvcapi.model.BeerOrderCreateDTO;
 import guru.springframework.spring6restmvcapi.model.BeerOrderDTO;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -15,6 +17,13 @@ import java.util.UUID;
 public interface BeerOrderService {
 
     Page<BeerOrderDTO> listOrders(Integer pageNumber, Integer pageSize);
+    Slice<BeerOrderDTO> listOrderSlice(Integer pageNumber, Integer pageSize);
+    Optional<Page<BeerOrderDTO>> listOrdersByCustomer(UUID customerId, Integer pageNumber, Integer pageSize);
+
+    /**
+     * Keyset paged order history of a customer, newest first. Empty if there is no such customer.
+     */
+    Optional<CursorPage<BeerOrderDTO>> listOrdersByCustomerAfter(UUID customerId, Optional<String> after, Optional<Integer> pageSize);
     BeerOrderDTO createOrder(BeerOrderCreateDTO beerOrderCreateDTO);
     BeerOrderDTO createOrder(BeerOrderDTO beerOrderDTO);
     Optional<BeerOrderDTO> getOrderById(UUID orderId);
@@ -22,6 +31,8 @@ public interface BeerOrderService {
     BeerOrderDTO updateBeerOrder(UUID orderId, BeerOrderDTO beerOrderDTO);
     Boolean deleteOrder(UUID orderId);
     void patchOrder(UUID orderId, BeerOrderDTO beerOrderDTO);
+    boolean orderExists(UUID orderId);
 
     long count();
+    long approximateCount();
 }
\ No newline at end of file
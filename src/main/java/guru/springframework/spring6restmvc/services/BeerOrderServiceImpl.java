@@ -1,28 +1,54 @@
 package guru.springframework.spring6restmvc.services;
 
+import guru.springframework.spring6restmvc.domain.Beer;
 import guru.springframework.spring6restmvc.domain.BeerOrder;
 import guru.springframework.spring6restmvc.domain.BeerOrderLine;
 import guru.springframework.spring6restmvc.domain.BeerOrderShipment;
+import guru.springframework.spring6restmvc.exceptions.InvalidCursorException;
 import guru.springframework.spring6restmvc.exceptions.NotFoundException;
 import guru.springframework.spring6restmvc.mappers.BeerOrderCreateMapper;
 import guru.springframework.spring6restmvc.mappers.BeerOrderMapper;
+import guru.springframework.spring6restmvc.model.CursorPage;
+import guru.springframework.spring6restmvc.model.PageCursor;
 import guru.springframework.spring6restmvcapi.events.OrderPlacedEvent;
 import guru.springframework.spring6restmvcapi.model.BeerOrderCreateDTO;
 import guru.springframework.spring6restmvcapi.model.BeerOrderDTO;
+import guru.springframework.spring6restmvcapi.model.BeerOrderLineDTO;
+import guru.springframework.spring6restmvc.repository.BeerOrderLineRepository;
 import guru.springframework.spring6restmvc.repository.BeerOrderRepository;
 import guru.springframework.spring6restmvc.repository.BeerRepository;
 import guru.springframework.spring6restmvc.repository.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Author:john
@@ -40,17 +66,95 @@ public class BeerOrderServiceImpl implements BeerOrderService {
 
     private final BeerRepository beerRepository;
     private final CustomerRepository customerRepository;
+    private final BeerOrderLineRepository beerOrderLineRepository;
 
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final MeterRegistry meterRegistry;
 
 
+    @Transactional(readOnly = true)
     @Override
     public Page<BeerOrderDTO> listOrders(Integer pageNumber, Integer pageSize) {
         log.info("List BeerOrders - in service");
-        return beerOrderRepository.findAll(PageRequest.of(pageNumber!=null?(pageNumber-1):0, pageSize!=null?pageSize:10))
-                .map(beerOrderMapper::beerOrderToBeerOrderDTO);
+        Page<UUID> ids = beerOrderRepository.findPageOfIds(PageRequest.of(pageNumber!=null?(pageNumber-1):0, pageSize!=null?pageSize:10));
+        return new PageImpl<>(loadOrders(ids.getContent()), ids.getPageable(), ids.getTotalElements());
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<BeerOrderDTO> listOrderSlice(Integer pageNumber, Integer pageSize) {
+        log.info("List BeerOrder slice - in service");
+        Slice<UUID> ids = beerOrderRepository.findSliceOfIds(PageRequest.of(pageNumber!=null?(pageNumber-1):0, pageSize!=null?pageSize:10));
+        return new SliceImpl<>(loadOrders(ids.getContent()), ids.getPageable(), ids.hasNext());
+    }
+
+    /**
+     * Second phase of a listing: loads the full graph of the given orders in one statement and maps them in the
+     * order of {@code ids}.
+     */
+    private List<BeerOrderDTO> loadOrders(List<UUID> ids) {
+        return loadOrderGraph(ids).stream().map(beerOrderMapper::beerOrderToBeerOrderDTO).toList();
+    }
+
+    private List<BeerOrder> loadOrderGraph(List<UUID> ids) {
+        if (ids.isEmpty())
+            return List.of();
+        Map<UUID, BeerOrder> orders = beerOrderRepository.findGraphByIdIn(ids).stream()
+                .collect(Collectors.toMap(BeerOrder::getId, Function.identity()));
+        return ids.stream()
+                .map(orders::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public Optional<Page<BeerOrderDTO>> listOrdersByCustomer(UUID customerId, Integer pageNumber, Integer pageSize) {
+        log.info("List BeerOrders for customer {} - in service", customerId);
+        if (!customerRepository.existsById(customerId))
+            return Optional.empty();
+        PageRequest pageRequest = PageRequest.of(pageNumber != null ? (pageNumber - 1) : 0, pageSize != null ? pageSize : 10,
+                Sort.by(Sort.Order.desc("createdDate"), Sort.Order.asc("id")));
+        return Optional.of(beerOrderRepository.findByCustomerId(customerId, pageRequest)
+                .map(beerOrderMapper::beerOrderToBeerOrderDTO));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<CursorPage<BeerOrderDTO>> listOrdersByCustomerAfter(UUID customerId, Optional<String> after, Optional<Integer> pageSize) {
+        log.info("List BeerOrders for customer {} after cursor - in service", customerId);
+        PageCursor cursor = after.filter(StringUtils::hasText).map(PageCursor::decode).orElse(null);
+        if (!customerRepository.existsById(customerId))
+            return Optional.empty();
+
+        int size = pageSize.orElse(10);
+        // one extra id tells us whether there is a next window without a count query
+        List<UUID> ids = cursor == null
+                ? beerOrderRepository.findIdsByCustomer(customerId, Limit.of(size + 1))
+                : beerOrderRepository.findIdsByCustomerBefore(customerId, createdDate(cursor), cursor.getId(), Limit.of(size + 1));
+        boolean hasNext = ids.size() > size;
+        List<BeerOrder> orders = loadOrderGraph(hasNext ? ids.subList(0, size) : ids);
+
+        String nextCursor = null;
+        if (hasNext && !orders.isEmpty()) {
+            BeerOrder last = orders.getLast();
+            nextCursor = PageCursor.of(last.getCreatedDate().toString(), last.getId()).encode();
+        }
+        return Optional.of(CursorPage.<BeerOrderDTO>builder()
+                .content(orders.stream().map(beerOrderMapper::beerOrderToBeerOrderDTO).toList())
+                .nextCursor(nextCursor)
+                .pageSize(size)
+                .build());
+    }
+
+    private static LocalDateTime createdDate(PageCursor cursor) {
+        try {
+            return LocalDateTime.parse(cursor.getKey());
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor.encode(), e);
+        }
+    }
+
+    @CacheEvict(cacheNames = "beerOrderCountCache", allEntries = true)
     @Transactional
     @Override
     public BeerOrderDTO createOrder(BeerOrderDTO beerOrderDTO) {
@@ -59,12 +163,29 @@ public class BeerOrderServiceImpl implements BeerOrderService {
                 beerOrderRepository.save(beerOrderMapper.beerOrderDTOToBeerOrder(beerOrderDTO)));
     }
 
+    @CacheEvict(cacheNames = "beerOrderCountCache", allEntries = true)
     @Transactional
     @Override
     public BeerOrderDTO createOrder(BeerOrderCreateDTO beerOrderCreateDTO) {
         log.info("Create Order - In Service from Create DTO {}", beerOrderCreateDTO);
-        return beerOrderMapper.beerOrderToBeerOrderDTO(
+        Timer.Sample sample = Timer.start(meterRegistry);
+        BeerOrderDTO created = beerOrderMapper.beerOrderToBeerOrderDTO(
                 beerOrderRepository.save(beerOrderCreateMapper.beerOrderCreateDTOToBeerOrder(beerOrderCreateDTO)));
+        sample.stop(Timer.builder("beer.order.create")
+                .description("Time to resolve, save and map a new order, by number of order lines")
+                .tag("lines", lineCountBucket(beerOrderCreateDTO.getOrderLines().size()))
+                .register(meterRegistry));
+        return created;
+    }
+
+    static String lineCountBucket(int lines) {
+        if (lines <= 1)
+            return "1";
+        if (lines <= 10)
+            return "2-10";
+        if (lines <= 50)
+            return "11-50";
+        return "51+";
     }
 
     @Override
@@ -73,6 +194,7 @@ public class BeerOrderServiceImpl implements BeerOrderService {
         return beerOrderRepository.findById(orderId).map(beerOrderMapper::beerOrderToBeerOrderDTO);
     }
 
+    @Transactional
     @Override
     public Optional<BeerOrderDTO> updateOrder(UUID orderId, BeerOrderDTO beerOrderDTO) {
         log.info("Update Order - In Service");
@@ -93,24 +215,61 @@ public class BeerOrderServiceImpl implements BeerOrderService {
         return updatedOrderDTO.get();
     }
 
+    /**
+     * Replaces the order's lines with the ones given: lines with an id are updated, lines without one are added and
+     * existing lines left out are removed. Existing lines are indexed by id and every referenced beer is loaded with
+     * one query, so the cost grows with the number of lines rather than lines times lines; all changes go out in the
+     * transaction's single flush. Unknown line ids or beers are reported together as one {@link NotFoundException}.
+     */
+    @Transactional
     @Override
     public BeerOrderDTO updateBeerOrder(UUID orderId, BeerOrderDTO beerOrderDTO) {
         log.info("Update Beer Order");
         BeerOrder beerOrder = beerOrderRepository.findById(orderId).orElseThrow(NotFoundException::new);
-        beerOrderDTO.getOrderLines().forEach(orderLineDTO -> {
-            if (orderLineDTO.getId()!=null) {
-                BeerOrderLine beerOrderLine = beerOrder.getOrderLines().stream().filter(line -> line.getId().equals(orderLineDTO.getId()))
-                        .findFirst().orElseThrow(NotFoundException::new);
-                beerOrderLine.setBeer(beerRepository.findById(orderLineDTO.getBeer().getId()).orElseThrow(NotFoundException::new));
-                beerOrderLine.setOrderQuantity(orderLineDTO.getOrderQuantity());
+        Set<BeerOrderLineDTO> lineDTOs = beerOrderDTO.getOrderLines() != null ? beerOrderDTO.getOrderLines() : Set.of();
+
+        Map<UUID, BeerOrderLine> existingLines = beerOrder.getOrderLines().stream()
+                .collect(Collectors.toMap(BeerOrderLine::getId, Function.identity()));
+        Set<UUID> beerIds = lineDTOs.stream()
+                .map(line -> line.getBeer() != null ? line.getBeer().getId() : null)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, Beer> beers = beerRepository.findAllById(beerIds).stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+
+        List<String> missing = new ArrayList<>();
+        lineDTOs.forEach(line -> {
+            if (line.getId() != null && !existingLines.containsKey(line.getId()))
+                missing.add("order line " + line.getId());
+            if (line.getBeer() == null || line.getBeer().getId() == null)
+                missing.add("beer for line " + (line.getId() != null ? line.getId() : "without id"));
+        });
+        beerIds.stream().filter(beerId -> !beers.containsKey(beerId)).forEach(beerId -> missing.add("beer " + beerId));
+        if (!missing.isEmpty())
+            throw new NotFoundException("Order " + orderId + " update refers to unknown " + String.join(", ", missing));
+
+        Set<UUID> keptLineIds = new HashSet<>();
+        List<BeerOrderLine> addedLines = new ArrayList<>();
+        lineDTOs.forEach(line -> {
+            Beer beer = beers.get(line.getBeer().getId());
+            if (line.getId() != null) {
+                BeerOrderLine beerOrderLine = existingLines.get(line.getId());
+                beerOrderLine.setBeer(beer);
+                beerOrderLine.setOrderQuantity(line.getOrderQuantity());
+                keptLineIds.add(line.getId());
             } else {
-                beerOrder.getOrderLines().add(BeerOrderLine.builder()
-                        .beer(beerRepository.findById(orderLineDTO.getBeer().getId()).orElseThrow(NotFoundException::new))
-                        .orderQuantity(orderLineDTO.getOrderQuantity())
+                addedLines.add(BeerOrderLine.builder().beer(beer).orderQuantity(line.getOrderQuantity())
                         .beerOrder(beerOrder).build());
             }
-
         });
+        List<BeerOrderLine> removedLines = existingLines.values().stream()
+                .filter(line -> !keptLineIds.contains(line.getId()))
+                .toList();
+        beerOrder.getOrderLines().removeAll(removedLines);
+        beerOrderLineRepository.deleteAll(removedLines);
+        beerOrder.getOrderLines().addAll(addedLines);
+        log.debug("Order {}: {} lines added, {} updated, {} removed", orderId, addedLines.size(), keptLineIds.size(),
+                removedLines.size());
 
         if(beerOrderDTO.getBeerOrderShipment()!=null) {
             beerOrder.setBeerOrderShipment(BeerOrderShipment.builder().id(beerOrderDTO.getBeerOrderShipment().getId())
@@ -122,6 +281,7 @@ public class BeerOrderServiceImpl implements BeerOrderService {
         return beerOrderMapper.beerOrderToBeerOrderDTO(beerOrderRepository.save(beerOrder));
     }
 
+    @CacheEvict(cacheNames = "beerOrderCountCache", allEntries = true)
     @Override
     public Boolean deleteOrder(UUID orderId) {
         log.info("Delete Order - In Service");
@@ -153,8 +313,20 @@ public class BeerOrderServiceImpl implements BeerOrderService {
                });
     }
 
+    @Override
+    public boolean orderExists(UUID orderId) {
+        return beerOrderRepository.existsById(orderId);
+    }
+
     @Override
     public long count() {
         return beerOrderRepository.count();
     }
+
+    @Cacheable(cacheNames = "beerOrderCountCache")
+    @Override
+    public long approximateCount() {
+        log.info("Count BeerOrders - in service");
+        return beerOrderRepository.count();
+    }
 }
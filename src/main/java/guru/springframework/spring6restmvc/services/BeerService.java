@@ -1,9 +1,11 @@
 package guru.springframework.spring6restmvc.services;
 
+import guru.springframework.spring6restmvc.model.CursorPage;
 import guru.springframework.spring6restmvcapi.model.BeerDTO;
 import guru.springframework.spring6restmvcapi.model.BeerSearchCriteria;
 import guru.springframework.spring6restmvcapi.enums.BeerStyle;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,6 +18,9 @@ import java.util.UUID;
 public interface BeerService {
     
     Page<BeerDTO> listBeers(Optional<String> beerName, Optional<BeerStyle> beerStyle, Optional<Integer> pageNumber, Optional<Integer> pageSize);
+    Slice<BeerDTO> listBeerSlice(Optional<String> beerName, Optional<BeerStyle> beerStyle, Optional<Integer> pageNumber, Optional<Integer> pageSize);
+    long countBeers(Optional<String> beerName, Optional<BeerStyle> beerStyle);
+    CursorPage<BeerDTO> listBeersAfter(Optional<String> beerName, Optional<BeerStyle> beerStyle, Optional<String> after, Optional<Integer> pageSize);
     List<BeerDTO> searchBeers(BeerSearchCriteria criteria);
     Optional<BeerDTO> getById(UUID id);
     BeerDTO save(BeerDTO beer);
@@ -1,12 +1,21 @@
 package guru.springframework.spring6restmvc.services;
 
+import guru.springframework.spring6restmvc.cache.BeerListCache;
+import guru.springframework.spring6restmvc.cache.BeerListKey;
+import guru.springframework.spring6restmvc.cache.BeerListWindow;
+import guru.springframework.spring6restmvc.cache.BeerState;
+import guru.springframework.spring6restmvc.cache.CacheInvalidationPublisher;
 import guru.springframework.spring6restmvc.domain.Beer;
 import guru.springframework.spring6restmvc.events.BeerCreatedEvent;
 import guru.springframework.spring6restmvc.events.BeerDeletedEvent;
 import guru.springframework.spring6restmvc.events.BeerPatchEvent;
 import guru.springframework.spring6restmvc.events.BeerUpdatedEvent;
 import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.inventory.InventoryLedger;
 import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.CursorPage;
+import guru.springframework.spring6restmvc.model.PageCursor;
+import guru.springframework.spring6restmvc.repository.BeerNameIndex;
 import guru.springframework.spring6restmvcapi.model.BeerDTO;
 import guru.springframework.spring6restmvcapi.model.BeerSearchCriteria;
 import guru.springframework.spring6restmvcapi.enums.BeerStyle;
@@ -18,15 +27,19 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -44,14 +57,32 @@ public class BeerServiceImpl implements BeerService {
     private final BeerMapper beerMapper;
     private final CacheManager cacheManager;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final BeerListCache beerListCache;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final BeerNameIndex beerNameIndex;
+    private final InventoryLedger inventoryLedger;
 
-
-    @Cacheable(cacheNames = "beerListCache")
     @Override
     public Page<BeerDTO> listBeers(Optional<String> beerName, Optional<BeerStyle> beerStyle, Optional<Integer> pageNumber, Optional<Integer> pageSize) {
+        BeerListKey key = BeerListKey.of(BeerListKey.Mode.PAGE, beerName.orElse(null), beerStyle.orElse(null),
+                pageNumber.orElse(null), pageSize.orElse(null), null);
+        return beerListCache.get(key, () -> loadBeerPage(beerName, beerStyle, pageNumber, pageSize),
+                page -> window(page.getContent(), page.isFirst() ? null : firstName(page.getContent()), page.isLast(), true));
+    }
+
+    private Page<BeerDTO> loadBeerPage(Optional<String> beerName, Optional<BeerStyle> beerStyle, Optional<Integer> pageNumber, Optional<Integer> pageSize) {
         log.info("List Beers - in service");
 
         PageRequest pageRequest = PageRequest.of(pageNumber.orElse(1) - 1, pageSize.orElse(10), Sort.by(Sort.Order.asc("beerName")));
+        Optional<Set<UUID>> candidates = beerName.flatMap(beerNameIndex::candidates);
+        if (candidates.isPresent()) {
+            if (candidates.get().isEmpty())
+                return Page.empty(pageRequest);
+            return (beerStyle.isPresent()
+                    ? beerRepository.findByIdInAndBeerStyle(candidates.get(), beerStyle.get(), pageRequest)
+                    : beerRepository.findByIdIn(candidates.get(), pageRequest)).map(beerMapper::beerToBeerDTO);
+        }
+
         Page<Beer> beerPage = null;
         if (beerName.isPresent() && beerStyle.isEmpty())
             beerPage = beerRepository.findByBeerNameLikeIgnoreCase("%" + beerName.get() + "%", pageRequest);
@@ -68,6 +99,102 @@ public class BeerServiceImpl implements BeerService {
         return beerPage.map(beerMapper::beerToBeerDTO);
     }
 
+    @Override
+    public Slice<BeerDTO> listBeerSlice(Optional<String> beerName, Optional<BeerStyle> beerStyle, Optional<Integer> pageNumber, Optional<Integer> pageSize) {
+        BeerListKey key = BeerListKey.of(BeerListKey.Mode.SLICE, beerName.orElse(null), beerStyle.orElse(null),
+                pageNumber.orElse(null), pageSize.orElse(null), null);
+        return beerListCache.get(key, () -> loadBeerSlice(beerName, beerStyle, pageNumber, pageSize),
+                slice -> window(slice.getContent(), slice.isFirst() ? null : firstName(slice.getContent()), slice.isLast(), false));
+    }
+
+    private Slice<BeerDTO> loadBeerSlice(Optional<String> beerName, Optional<BeerStyle> beerStyle, Optional<Integer> pageNumber, Optional<Integer> pageSize) {
+        log.info("List Beer slice - in service");
+
+        PageRequest pageRequest = PageRequest.of(pageNumber.orElse(1) - 1, pageSize.orElse(10), Sort.by(Sort.Order.asc("beerName")));
+        Optional<Set<UUID>> candidates = beerName.flatMap(beerNameIndex::candidates);
+        if (candidates.isPresent() && candidates.get().isEmpty())
+            return new SliceImpl<>(List.of(), pageRequest, false);
+
+        Slice<Beer> beerSlice;
+        if (candidates.isPresent() && beerStyle.isPresent())
+            beerSlice = beerRepository.findSliceByIdInAndBeerStyle(candidates.get(), beerStyle.get(), pageRequest);
+        else if (candidates.isPresent())
+            beerSlice = beerRepository.findSliceByIdIn(candidates.get(), pageRequest);
+        else if (beerName.isPresent() && beerStyle.isPresent())
+            beerSlice = beerRepository.findSliceByBeerNameLikeIgnoreCaseAndBeerStyle("%" + beerName.get() + "%", beerStyle.get(), pageRequest);
+        else if (beerName.isPresent())
+            beerSlice = beerRepository.findSliceByBeerNameLikeIgnoreCase("%" + beerName.get() + "%", pageRequest);
+        else if (beerStyle.isPresent())
+            beerSlice = beerRepository.findSliceByBeerStyle(beerStyle.get(), pageRequest);
+        else
+            beerSlice = beerRepository.findSliceBy(pageRequest);
+
+        return beerSlice.map(beerMapper::beerToBeerDTO);
+    }
+
+    /**
+     * Cached separately from the listings and only cleared when beers are added or removed, so the figure can lag
+     * behind renames and style changes - good enough for a result-count hint.
+     */
+    @Cacheable(cacheNames = "beerCountCache")
+    @Override
+    public long countBeers(Optional<String> beerName, Optional<BeerStyle> beerStyle) {
+        log.info("Count Beers - in service");
+        Optional<Set<UUID>> candidates = beerName.flatMap(beerNameIndex::candidates);
+        // counted from the rows themselves, so an index entry for a beer deleted elsewhere is not counted
+        if (candidates.isPresent() && candidates.get().isEmpty())
+            return 0;
+        if (candidates.isPresent() && beerStyle.isPresent())
+            return beerRepository.countByIdInAndBeerStyle(candidates.get(), beerStyle.get());
+        if (candidates.isPresent())
+            return beerRepository.countByIdIn(candidates.get());
+        if (beerName.isPresent() && beerStyle.isPresent())
+            return beerRepository.countByBeerNameLikeIgnoreCaseAndBeerStyle("%" + beerName.get() + "%", beerStyle.get());
+        if (beerName.isPresent())
+            return beerRepository.countByBeerNameLikeIgnoreCase("%" + beerName.get() + "%");
+        if (beerStyle.isPresent())
+            return beerRepository.countByBeerStyle(beerStyle.get());
+        return beerRepository.count();
+    }
+
+    @Override
+    public CursorPage<BeerDTO> listBeersAfter(Optional<String> beerName, Optional<BeerStyle> beerStyle, Optional<String> after, Optional<Integer> pageSize) {
+        PageCursor cursor = after.filter(StringUtils::hasText).map(PageCursor::decode).orElse(null);
+        BeerListKey key = BeerListKey.of(BeerListKey.Mode.CURSOR, beerName.orElse(null), beerStyle.orElse(null),
+                null, pageSize.orElse(null), cursor != null ? cursor.encode() : null);
+        return beerListCache.get(key, () -> loadBeersAfter(beerName, beerStyle, cursor, pageSize),
+                page -> window(page.getContent(), cursor != null ? cursor.getKey() : null, !page.hasNext(), false));
+    }
+
+    private CursorPage<BeerDTO> loadBeersAfter(Optional<String> beerName, Optional<BeerStyle> beerStyle, PageCursor cursor, Optional<Integer> pageSize) {
+        log.info("List Beers after cursor - in service");
+
+        int size = pageSize.orElse(10);
+        // one extra row tells us whether there is a next window without a count query
+        List<Beer> beers = beerRepository.findBeersAfter(beerName.orElse(null), beerStyle.orElse(null), cursor, size + 1);
+
+        String nextCursor = null;
+        if (beers.size() > size) {
+            beers = beers.subList(0, size);
+            Beer last = beers.getLast();
+            nextCursor = PageCursor.of(last.getBeerName(), last.getId()).encode();
+        }
+        return CursorPage.<BeerDTO>builder()
+                .content(beers.stream().map(beerMapper::beerToBeerDTO).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .pageSize(size)
+                .build();
+    }
+
+    private static BeerListWindow window(List<BeerDTO> content, String lowerName, boolean lastWindow, boolean withTotals) {
+        String upperName = content.isEmpty() ? null : content.getLast().getBeerName();
+        return BeerListWindow.of(lowerName, upperName, lastWindow, withTotals);
+    }
+
+    private static String firstName(List<BeerDTO> content) {
+        return content.isEmpty() ? null : content.getFirst().getBeerName();
+    }
+
     @Override
     public List<BeerDTO> searchBeers(BeerSearchCriteria criteria) {
         log.info("Search beer by criteria - in service: {}", criteria);
@@ -85,9 +212,11 @@ public class BeerServiceImpl implements BeerService {
     @Override
     public BeerDTO save(BeerDTO beerDTO) {
         log.info("Saving beer in service {}", beerDTO);
-        clearBeerListCache();
+        clearBeerCountCache();
         Beer savedBeer = beerRepository.save(beerMapper.beerDTOToBeer(beerDTO));
         beerRepository.flush();
+        cacheInvalidationPublisher.beerNameChanged(savedBeer.getId());
+        invalidateBeerListCache(null, BeerState.of(savedBeer));
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         applicationEventPublisher.publishEvent(new BeerCreatedEvent(savedBeer, authentication));
         return beerMapper.beerToBeerDTO(savedBeer);
@@ -108,6 +237,8 @@ public class BeerServiceImpl implements BeerService {
 
         AtomicReference<Beer> atomicReference = new AtomicReference<>();
         beerRepository.findById(beerId).ifPresentOrElse(beerFound -> {
+            BeerState before = BeerState.of(beerFound);
+            boolean quantityChanged = !Objects.equals(beerFound.getQuantityOnHand(), beer.getQuantityOnHand());
             beerFound.setBeerName(beer.getBeerName());
             beerFound.setBeerStyle(beer.getBeerStyle());
             beerFound.setUpc(beer.getUpc());
@@ -116,6 +247,11 @@ public class BeerServiceImpl implements BeerService {
 
             Beer updatedBeer = beerRepository.save(beerFound);
             beerRepository.flush();
+            if (quantityChanged)
+                inventoryLedger.reset(beerId);
+            invalidateBeerListCache(before, BeerState.of(updatedBeer));
+            if (!Objects.equals(before.getBeerName(), updatedBeer.getBeerName()))
+                cacheInvalidationPublisher.beerNameChanged(beerId);
             atomicReference.set(updatedBeer);
         }, () -> atomicReference.set(null));
         Optional<BeerDTO> beerDTOOptional = Optional.empty();
@@ -135,8 +271,13 @@ public class BeerServiceImpl implements BeerService {
         log.info("Delete Beer - in service. Id: {}", beerId.toString());
         evictCache(beerId);
 
-        if (beerRepository.existsById(beerId)) {
-            beerRepository.deleteById(beerId);
+        Optional<Beer> existingBeer = beerRepository.findById(beerId);
+        if (existingBeer.isPresent()) {
+            beerRepository.delete(existingBeer.get());
+            inventoryLedger.forget(beerId);
+            cacheInvalidationPublisher.beerNameChanged(beerId);
+            clearBeerCountCache();
+            invalidateBeerListCache(BeerState.of(existingBeer.get()), null);
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             applicationEventPublisher.publishEvent(BeerDeletedEvent.builder().authentication(authentication)
                     .beer(Beer.builder().id(beerId).build()).build());
@@ -151,6 +292,9 @@ public class BeerServiceImpl implements BeerService {
         log.debug("Patch Beer - in service. Id: {}", beerId.toString());
         evictCache(beerId);
         Beer existingBeer = beerRepository.findById(beerId).orElseThrow(NotFoundException::new);
+        BeerState before = BeerState.of(existingBeer);
+        boolean quantityChanged = beer.getQuantityOnHand() != null
+                && !beer.getQuantityOnHand().equals(existingBeer.getQuantityOnHand());
 
         if (beer.getBeerName() != null) {
             existingBeer.setBeerName(beer.getBeerName());
@@ -170,6 +314,11 @@ public class BeerServiceImpl implements BeerService {
 
         Beer savedBeer = beerRepository.save(existingBeer);
         beerRepository.flush();
+        if (quantityChanged)
+            inventoryLedger.reset(beerId);
+        invalidateBeerListCache(before, BeerState.of(savedBeer));
+        if (!Objects.equals(before.getBeerName(), savedBeer.getBeerName()))
+            cacheInvalidationPublisher.beerNameChanged(beerId);
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         applicationEventPublisher.publishEvent(BeerPatchEvent.builder().beer(savedBeer).authentication(authentication).build());
     }
@@ -183,12 +332,18 @@ public class BeerServiceImpl implements BeerService {
         log.info("Evicting cache for beerId: {}", beerId.toString());
         if (cacheManager.getCache("beerCache") != null)
             Objects.requireNonNull(cacheManager.getCache("beerCache")).evict(beerId);
-        clearBeerListCache();
+        cacheInvalidationPublisher.evict("beerCache", beerId);
+    }
+
+    private void clearBeerCountCache() {
+        if (cacheManager.getCache("beerCountCache") != null)
+            Objects.requireNonNull(cacheManager.getCache("beerCountCache")).clear();
+        cacheInvalidationPublisher.clear("beerCountCache");
     }
 
-    private void clearBeerListCache() {
-        if (cacheManager.getCache("beerListCache") != null)
-            Objects.requireNonNull(cacheManager.getCache("beerListCache")).clear();
+    private void invalidateBeerListCache(BeerState before, BeerState after) {
+        beerListCache.invalidate(before, after);
+        cacheInvalidationPublisher.beerListChanged(before, after);
     }
 
 }
@@ -1,8 +1,8 @@
 package guru.springframework.spring6restmvc.services;
 
 import guru.springframework.spring6restmvcapi.model.CustomerDTO;
+import org.springframework.data.domain.Page;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,8 +11,9 @@ import java.util.UUID;
  * @since 02/07/2024
  */
 public interface CustomerService {
-    List<CustomerDTO> listCustomers();
+    Page<CustomerDTO> listCustomers(Integer pageNumber, Integer pageSize);
     Optional<CustomerDTO> getCustomerById(UUID customerID);
+    boolean existsById(UUID customerId);
     CustomerDTO save(CustomerDTO customer);
     Optional<CustomerDTO> update(UUID customerId, CustomerDTO customer);
 
@@ -1,5 +1,6 @@
 package guru.springframework.spring6restmvc.services;
 
+import guru.springframework.spring6restmvc.cache.CacheInvalidationPublisher;
 import guru.springframework.spring6restmvc.mappers.CustomerMapper;
 import guru.springframework.spring6restmvc.repository.CustomerRepository;
 import guru.springframework.spring6restmvcapi.model.CustomerDTO;
@@ -7,13 +8,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
 
 /**
  * @author john
@@ -27,14 +29,15 @@ public class CustomerServiceImpl implements CustomerService {
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
     private final CacheManager cacheManager;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
 
     @Cacheable(cacheNames = "customerListCache")
     @Override
-    public List<CustomerDTO> listCustomers() {
-        log.debug("List all customers - in service");
-        return customerRepository.findAll().stream()
-                .map(customerMapper::customerToCustomerDTO)
-                .collect(Collectors.toList());
+    public Page<CustomerDTO> listCustomers(Integer pageNumber, Integer pageSize) {
+        log.debug("List customers - in service");
+        PageRequest pageRequest = PageRequest.of(pageNumber != null ? (pageNumber - 1) : 0, pageSize != null ? pageSize : 25,
+                Sort.by(Sort.Order.asc("name"), Sort.Order.asc("id")));
+        return customerRepository.findAll(pageRequest).map(customerMapper::customerToCustomerDTO);
     }
 
     @Cacheable(cacheNames = "customerCache")
@@ -45,6 +48,11 @@ public class CustomerServiceImpl implements CustomerService {
                 .map(customerMapper::customerToCustomerDTO);
     }
 
+    @Override
+    public boolean existsById(UUID customerId) {
+        return customerRepository.existsById(customerId);
+    }
+
     @Override
     public CustomerDTO save(CustomerDTO customer) {
         log.debug("Save Customer - in service");
@@ -71,12 +79,14 @@ public class CustomerServiceImpl implements CustomerService {
         log.info("Evict customer list cache");
         if (cacheManager.getCache("customerListCache") != null)
             cacheManager.getCache("customerListCache").clear();
+        cacheInvalidationPublisher.clear("customerListCache");
     }
 
     private void evictCustomerCache(UUID customerId) {
         log.info("Evict customer cache for id: {}", customerId.toString());
         if (cacheManager.getCache("customerCache") != null)
             cacheManager.getCache("customerCache").evict(customerId);
+        cacheInvalidationPublisher.evict("customerCache", customerId);
     }
 
     @Override
@@ -0,0 +1,170 @@
+package guru.springframework.spring6restmvc.streams;
+
+import guru.springframework.spring6restmvc.model.OrderLineStatusChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans order line status changes out to the Server-Sent Event streams of the order and of its customer. Publishing
+ * only queues the change in each matching subscriber's bounded buffer, after the surrounding transaction commits; every
+ * stream is written by its own virtual thread, which sits parked between events, so thousands of open streams cost
+ * little more than their buffers.
+ * <p>
+ * Changes made on other replicas are not seen here; clients that need them must subscribe on every node or poll.
+ * <p>
+ * Metrics: the {@code order.events.subscribers} gauge and the {@code order.events.delivered} /
+ * {@code order.events.dropped} counters.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:18:40
+ */
+@Slf4j
+@Component
+public class OrderLineEventHub {
+
+    private final int bufferSize;
+    private final Duration heartbeatInterval;
+    private final Duration streamTimeout;
+    private final Map<UUID, Set<OrderLineSubscriber>> byOrder = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<OrderLineSubscriber>> byCustomer = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ExecutorService writers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-events-", 0).factory());
+
+    private final Counter delivered;
+    private final Counter dropped;
+
+    public OrderLineEventHub(MeterRegistry meterRegistry,
+                             @Value("${app.order-events.buffer-size:256}") int bufferSize,
+                             @Value("${app.order-events.heartbeat-interval:15s}") Duration heartbeatInterval,
+                             @Value("${app.order-events.timeout:30m}") Duration streamTimeout) {
+        this.bufferSize = bufferSize;
+        this.heartbeatInterval = heartbeatInterval;
+        this.streamTimeout = streamTimeout;
+
+        this.delivered = meterRegistry.counter("order.events.delivered");
+        this.dropped = meterRegistry.counter("order.events.dropped");
+        meterRegistry.gauge("order.events.subscribers", subscribers);
+    }
+
+    public SseEmitter subscribeOrder(UUID orderId) {
+        return subscribe(OrderLineSubscriber.Scope.ORDER, orderId);
+    }
+
+    public SseEmitter subscribeCustomer(UUID customerId) {
+        return subscribe(OrderLineSubscriber.Scope.CUSTOMER, customerId);
+    }
+
+    /**
+     * True while any stream is open. Lets publishers skip the work of building changes nobody will receive.
+     */
+    public boolean hasSubscribers() {
+        return subscribers.get() > 0;
+    }
+
+    /**
+     * Delivers the changes to the matching streams once the current transaction commits, or right away outside one.
+     */
+    public void publish(Collection<OrderLineStatusChange> changes) {
+        if (changes.isEmpty())
+            return;
+        afterCommit(() -> changes.forEach(this::deliver));
+    }
+
+    public void publish(OrderLineStatusChange change) {
+        publish(List.of(change));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        byOrder.values().forEach(streams -> streams.forEach(OrderLineSubscriber::complete));
+        byCustomer.values().forEach(streams -> streams.forEach(OrderLineSubscriber::complete));
+        writers.shutdownNow();
+    }
+
+    void register(OrderLineSubscriber subscriber) {
+        index(subscriber.getScope()).compute(subscriber.getKey(), (key, streams) -> {
+            Set<OrderLineSubscriber> result = streams != null ? streams : ConcurrentHashMap.newKeySet();
+            result.add(subscriber);
+            return result;
+        });
+        subscribers.incrementAndGet();
+    }
+
+    void unregister(OrderLineSubscriber subscriber) {
+        index(subscriber.getScope()).computeIfPresent(subscriber.getKey(), (key, streams) -> {
+            if (streams.remove(subscriber))
+                subscribers.decrementAndGet();
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    OrderLineSubscriber newSubscriber(OrderLineSubscriber.Scope scope, UUID key, SseEmitter emitter) {
+        return new OrderLineSubscriber(scope, key, emitter, bufferSize, heartbeatInterval, this::unregister);
+    }
+
+    void deliver(OrderLineStatusChange change) {
+        deliver(byOrder.get(change.getOrderId()), change);
+        if (change.getCustomerId() != null)
+            deliver(byCustomer.get(change.getCustomerId()), change);
+    }
+
+    private void deliver(Set<OrderLineSubscriber> streams, OrderLineStatusChange change) {
+        if (streams == null)
+            return;
+        for (OrderLineSubscriber subscriber : streams) {
+            if (subscriber.offer(change)) {
+                delivered.increment();
+            } else {
+                dropped.increment();
+            }
+        }
+    }
+
+    private SseEmitter subscribe(OrderLineSubscriber.Scope scope, UUID key) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        OrderLineSubscriber subscriber = newSubscriber(scope, key, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        register(subscriber);
+        writers.execute(subscriber::run);
+        log.debug("Order event stream opened for {} {}, {} open", scope, key, subscribers.get());
+        return emitter;
+    }
+
+    private Map<UUID, Set<OrderLineSubscriber>> index(OrderLineSubscriber.Scope scope) {
+        return scope == OrderLineSubscriber.Scope.ORDER ? byOrder : byCustomer;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
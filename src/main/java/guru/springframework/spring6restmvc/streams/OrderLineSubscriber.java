@@ -0,0 +1,127 @@
+package guru.springframework.spring6restmvc.streams;
+
+import guru.springframework.spring6restmvc.model.OrderLineStatusChange;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * One open event stream. Changes are queued in a bounded buffer by the publishing thread and written to the
+ * {@link SseEmitter} by the subscriber's own (virtual) thread, so a slow client never holds up a publisher. When the
+ * buffer is full the oldest change is dropped and the client gets an {@link #OVERFLOW_EVENT} before the next change,
+ * telling it to re-read the order. With nothing to send for {@code heartbeatInterval} a comment line is written, which
+ * keeps proxies from closing the connection and notices a client that has gone away.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:18:25
+ */
+class OrderLineSubscriber {
+
+    static final String STATUS_EVENT = "order-line-status";
+    static final String OVERFLOW_EVENT = "overflow";
+
+    enum Scope {ORDER, CUSTOMER}
+
+    @Getter
+    private final Scope scope;
+    @Getter
+    private final UUID key;
+    private final SseEmitter emitter;
+    private final BlockingQueue<OrderLineStatusChange> buffer;
+    private final Duration heartbeatInterval;
+    private final Consumer<OrderLineSubscriber> onClose;
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile Thread worker;
+
+    OrderLineSubscriber(Scope scope, UUID key, SseEmitter emitter, int bufferSize, Duration heartbeatInterval,
+                        Consumer<OrderLineSubscriber> onClose) {
+        this.scope = scope;
+        this.key = key;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.heartbeatInterval = heartbeatInterval;
+        this.onClose = onClose;
+    }
+
+    /**
+     * Queues the change, dropping the oldest queued one if the buffer is full. Returns false if something was dropped.
+     */
+    boolean offer(OrderLineStatusChange change) {
+        if (buffer.offer(change))
+            return true;
+        buffer.poll();
+        overflowed.set(true);
+        // a concurrent publisher may have refilled the slot; the flag already tells the client it missed something
+        buffer.offer(change);
+        return false;
+    }
+
+    /**
+     * Sends queued changes until the stream is closed or the client goes away.
+     */
+    void run() {
+        worker = Thread.currentThread();
+        try {
+            while (!closed.get()) {
+                OrderLineStatusChange change = buffer.poll(heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (takeOverflow())
+                    emitter.send(SseEmitter.event().name(OVERFLOW_EVENT).data("Events were dropped; re-read the order"));
+                if (change == null) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .id(change.getOrderLineId() + ":" + change.getVersion())
+                            .name(STATUS_EVENT)
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (InterruptedException e) {
+            // closed while waiting
+        } catch (IOException | IllegalStateException e) {
+            // client disconnected or the emitter completed under us
+        } finally {
+            close();
+        }
+    }
+
+    void close() {
+        if (!closed.compareAndSet(false, true))
+            return;
+        Thread current = worker;
+        if (current != null && current != Thread.currentThread())
+            current.interrupt();
+        onClose.accept(this);
+    }
+
+    void complete() {
+        close();
+        emitter.complete();
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    int buffered() {
+        return buffer.size();
+    }
+
+    OrderLineStatusChange poll() {
+        return buffer.poll();
+    }
+
+    boolean takeOverflow() {
+        return overflowed.getAndSet(false);
+    }
+}
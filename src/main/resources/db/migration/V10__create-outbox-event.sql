@@ -0,0 +1,9 @@
+create table outbox_event (
+    id bigint not null auto_increment,
+    topic varchar(255) not null,
+    event_key varchar(100),
+    payload_type varchar(255) not null,
+    payload longtext not null,
+    created_date datetime(6),
+    primary key (id)
+) engine=InnoDB;
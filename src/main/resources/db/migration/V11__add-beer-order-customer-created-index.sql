@@ -0,0 +1 @@
+create index beer_order_customer_created_id_idx on beer_order (customer_id, created_date, id);
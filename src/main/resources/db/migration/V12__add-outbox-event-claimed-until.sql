@@ -0,0 +1 @@
+alter table outbox_event add column claimed_until datetime(6);
@@ -0,0 +1,2 @@
+update beer_order set created_date = coalesce(last_modified_date, now(6)) where created_date is null;
+alter table beer_order modify created_date datetime(6) not null;
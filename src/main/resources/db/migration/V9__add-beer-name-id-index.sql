@@ -0,0 +1 @@
+create index beer_name_id_idx on beer (beer_name, id);
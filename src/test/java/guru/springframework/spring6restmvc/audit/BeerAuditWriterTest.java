@@ -0,0 +1,192 @@
+package guru.springframework.spring6restmvc.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6restmvc.domain.BeerAudit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:11:20
+ */
+class BeerAuditWriterTest {
+
+    @TempDir
+    Path spillDir;
+
+    final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    final List<List<BeerAudit>> batches = new CopyOnWriteArrayList<>();
+    final CountDownLatch sinkGate = new CountDownLatch(1);
+
+    BeerAuditWriter beerAuditWriter;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        sinkGate.countDown();
+        if (beerAuditWriter != null)
+            beerAuditWriter.shutdown();
+    }
+
+    @Test
+    void writesInBatchesBySize() {
+        // Given
+        beerAuditWriter = writer(batches::add, 100, 10, Duration.ofSeconds(5), AuditOverflowPolicy.BLOCK);
+
+        // When
+        beerAuditWriter.enqueueAll(audits(25));
+
+        // Then
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(batches).hasSize(2));
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSize(10));
+    }
+
+    @Test
+    void flushesPartialBatchAfterInterval() {
+        // Given
+        beerAuditWriter = writer(batches::add, 100, 500, Duration.ofMillis(50), AuditOverflowPolicy.BLOCK);
+
+        // When
+        beerAuditWriter.enqueueAll(audits(3));
+
+        // Then
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(batches).hasSize(1));
+        assertThat(batches.getFirst()).hasSize(3);
+        assertThat(meterRegistry.get("beer.audit.flush").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void dropOldestKeepsNewestAudits() {
+        // Given
+        beerAuditWriter = writer(blockedSink(), 5, 1, Duration.ofMillis(10), AuditOverflowPolicy.DROP_OLDEST);
+        List<BeerAudit> audits = audits(20);
+
+        // When
+        beerAuditWriter.enqueueAll(audits);
+
+        // Then
+        assertThat(meterRegistry.get("beer.audit.dropped").counter().count()).isGreaterThanOrEqualTo(14);
+        sinkGate.countDown();
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(batches.stream().flatMap(List::stream).toList()).containsAll(audits.subList(15, 20)));
+    }
+
+    @Test
+    void spillsOverflowAndReplaysWhenIdle() {
+        // Given
+        beerAuditWriter = writer(blockedSink(), 5, 1, Duration.ofMillis(10), AuditOverflowPolicy.SPILL);
+        List<BeerAudit> audits = audits(20);
+
+        // When
+        beerAuditWriter.enqueueAll(audits);
+
+        // Then
+        assertThat(meterRegistry.get("beer.audit.spilled").counter().count()).isGreaterThanOrEqualTo(14);
+        assertThat(Files.exists(spillDir.resolve(BeerAuditWriter.SPILL_FILE))).isTrue();
+        sinkGate.countDown();
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(batches.stream().flatMap(List::stream).map(BeerAudit::getId).toList())
+                        .containsExactlyInAnyOrderElementsOf(audits.stream().map(BeerAudit::getId).toList()));
+    }
+
+    @Test
+    void replayFailingPartWayResumesAfterLastWrittenBatch() throws Exception {
+        // Given
+        List<BeerAudit> audits = audits(10);
+        writeSpillFile(audits);
+        AtomicInteger calls = new AtomicInteger();
+        BeerAuditSink failsThirdBatchOnce = batch -> {
+            if (calls.incrementAndGet() == 3)
+                throw new IllegalStateException("connection reset");
+            batches.add(batch);
+        };
+
+        // When
+        beerAuditWriter = writer(failsThirdBatchOnce, 5, 2, Duration.ofMillis(10), AuditOverflowPolicy.SPILL);
+
+        // Then
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(replayed()).isTrue());
+        assertThat(calls.get()).isEqualTo(6);
+        assertThat(batches.stream().flatMap(List::stream).map(BeerAudit::getId).toList())
+                .containsExactlyElementsOf(audits.stream().map(BeerAudit::getId).toList());
+    }
+
+    @Test
+    void replayMovesRefusedRowsToRejectedFile() throws Exception {
+        // Given
+        List<BeerAudit> audits = audits(6);
+        writeSpillFile(audits);
+        BeerAuditSink refusesBeer3 = batch -> {
+            if (batch.stream().anyMatch(audit -> audit.getBeerName().equals("Beer 3")))
+                throw new DataIntegrityViolationException("check constraint violated");
+            batches.add(batch);
+        };
+
+        // When
+        beerAuditWriter = writer(refusesBeer3, 5, 4, Duration.ofMillis(10), AuditOverflowPolicy.SPILL);
+
+        // Then
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(replayed()).isTrue());
+        assertThat(batches.stream().flatMap(List::stream).map(BeerAudit::getBeerName).toList())
+                .containsExactly("Beer 0", "Beer 1", "Beer 2", "Beer 4", "Beer 5");
+        assertThat(Files.readAllLines(spillDir.resolve(BeerAuditWriter.SPILL_FILE + ".rejected"))).singleElement()
+                .asString().contains("\"beerName\":\"Beer 3\"");
+        assertThat(meterRegistry.get("beer.audit.rejected").counter().count()).isEqualTo(1);
+    }
+
+    private boolean replayed() {
+        return Files.notExists(spillDir.resolve(BeerAuditWriter.SPILL_FILE))
+                && Files.notExists(spillDir.resolve(BeerAuditWriter.SPILL_FILE + ".replay"))
+                && Files.notExists(spillDir.resolve(BeerAuditWriter.SPILL_FILE + ".replay.checkpoint"));
+    }
+
+    private void writeSpillFile(List<BeerAudit> audits) throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (BeerAudit audit : audits)
+            lines.add(objectMapper.writeValueAsString(audit));
+        Files.write(spillDir.resolve(BeerAuditWriter.SPILL_FILE), lines, StandardCharsets.UTF_8);
+    }
+
+    private BeerAuditSink blockedSink() {
+        return batch -> {
+            try {
+                sinkGate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batches.add(batch);
+        };
+    }
+
+    private BeerAuditWriter writer(BeerAuditSink sink, int capacity, int batchSize, Duration flushInterval,
+                                   AuditOverflowPolicy policy) {
+        return new BeerAuditWriter(sink, objectMapper, meterRegistry, capacity, batchSize,
+                flushInterval, policy, spillDir);
+    }
+
+    private static List<BeerAudit> audits(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> BeerAudit.builder().id(UUID.randomUUID()).beerName("Beer " + i).auditEventType("BEER_CREATED").build())
+                .toList();
+    }
+}
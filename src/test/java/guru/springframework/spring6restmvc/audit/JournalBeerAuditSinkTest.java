@@ -0,0 +1,133 @@
+package guru.springframework.spring6restmvc.audit;
+
+import guru.springframework.spring6restmvc.domain.BeerAudit;
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:12:30
+ */
+class JournalBeerAuditSinkTest {
+
+    static final LocalDateTime START = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    void roundTripsAllColumns() throws Exception {
+        // Given
+        JournalBeerAuditSink sink = new JournalBeerAuditSink(journalDir, DataSize.ofKilobytes(64), Duration.ZERO);
+        BeerAudit audit = BeerAudit.builder().auditId(UUID.randomUUID()).id(UUID.randomUUID()).version(3)
+                .beerName("Galaxy Cat").beerStyle(BeerStyle.IPA).upc("0631234200036").quantityOnHand(122)
+                .price(new BigDecimal("12.99")).createdDate(START.minusDays(1)).updateDate(START)
+                .auditCreatedDate(START.plusNanos(123_456_000)).principalName("user").auditEventType("BEER_UPDATED")
+                .build();
+        BeerAudit sparse = BeerAudit.builder().id(audit.getId()).auditCreatedDate(START.plusSeconds(1)).build();
+
+        // When
+        sink.write(List.of(audit, sparse));
+
+        // Then
+        List<BeerAudit> found = sink.findByBeerId(audit.getId());
+        assertThat(found).hasSize(2);
+        assertThat(found.getFirst()).isEqualTo(audit);
+        assertThat(found.get(1).getAuditId()).isNotNull();
+        assertThat(found.get(1).getPrice()).isNull();
+        assertThat(found.get(1).getBeerName()).isNull();
+        sink.close();
+    }
+
+    @Test
+    void rollsSegmentsAndReadsAcrossThem() throws Exception {
+        // Given
+        JournalBeerAuditSink sink = new JournalBeerAuditSink(journalDir, DataSize.ofKilobytes(4), Duration.ZERO);
+        UUID beerId = UUID.randomUUID();
+
+        // When
+        sink.write(audits(beerId, 0, 200));
+
+        // Then
+        assertThat(sink.segmentCount()).isGreaterThan(1);
+        assertThat(sink.mappedSegmentCount()).isEqualTo(1);
+        assertThat(sink.findByBeerId(beerId)).hasSize(100);
+        assertThat(sink.findByBeerId(UUID.randomUUID())).isEmpty();
+        assertThat(sink.findByAuditCreatedDate(START.plusMinutes(50), START.plusMinutes(70)))
+                .extracting(BeerAudit::getAuditCreatedDate)
+                .containsExactlyElementsOf(IntStream.range(50, 70).mapToObj(START::plusMinutes).toList());
+        sink.close();
+    }
+
+    @Test
+    void reopensAndKeepsAppending() throws Exception {
+        // Given
+        UUID beerId = UUID.randomUUID();
+        JournalBeerAuditSink sink = new JournalBeerAuditSink(journalDir, DataSize.ofKilobytes(4), Duration.ZERO);
+        sink.write(audits(beerId, 0, 150));
+        int segments = sink.segmentCount();
+        sink.close();
+
+        // When
+        JournalBeerAuditSink reopened = new JournalBeerAuditSink(journalDir, DataSize.ofKilobytes(4), Duration.ZERO);
+        reopened.write(audits(beerId, 150, 10));
+
+        // Then
+        assertThat(reopened.segmentCount()).isGreaterThanOrEqualTo(segments);
+        assertThat(reopened.mappedSegmentCount()).isEqualTo(1);
+        assertThat(reopened.findByBeerId(beerId)).hasSize(80);
+        assertThat(reopened.findByAuditCreatedDate(START, START.plusMinutes(160))).hasSize(160);
+        reopened.close();
+    }
+
+    @Test
+    void expiresSealedSegmentsOlderThanRetention() throws Exception {
+        // Given
+        JournalBeerAuditSink sink = new JournalBeerAuditSink(journalDir, DataSize.ofKilobytes(4), Duration.ofDays(1));
+        UUID oldBeerId = UUID.randomUUID();
+        UUID newBeerId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        sink.write(audits(oldBeerId, now.minusDays(10), 0, 200));
+
+        // When
+        sink.write(audits(newBeerId, now, 0, 200));
+
+        // Then
+        assertThat(sink.findByBeerId(newBeerId)).hasSize(100);
+        assertThat(sink.findByBeerId(oldBeerId)).hasSizeLessThan(100);
+        try (Stream<Path> files = Files.list(journalDir)) {
+            assertThat(files.count()).isEqualTo(sink.segmentCount());
+        }
+        sink.close();
+    }
+
+    private static List<BeerAudit> audits(UUID beerId, int offset, int count) {
+        return audits(beerId, START, offset, count);
+    }
+
+    /**
+     * {@code count} audits one minute apart from {@code start + offset}; every other one belongs to {@code beerId}.
+     */
+    private static List<BeerAudit> audits(UUID beerId, LocalDateTime start, int offset, int count) {
+        return IntStream.range(offset, offset + count)
+                .mapToObj(i -> BeerAudit.builder().id(i % 2 == 0 ? beerId : UUID.randomUUID()).beerName("Beer " + i)
+                        .beerStyle(BeerStyle.LAGER).upc(String.valueOf(i)).price(BigDecimal.TEN)
+                        .auditCreatedDate(start.plusMinutes(i)).auditEventType("BEER_CREATED").build())
+                .toList();
+    }
+}
@@ -0,0 +1,110 @@
+package guru.springframework.spring6restmvc.cache;
+
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:04:02
+ */
+class BeerListCacheTest {
+
+    BeerListCache beerListCache;
+    SimpleMeterRegistry meterRegistry;
+    AtomicInteger loads;
+    Map<BeerListKey, BeerListWindow> windows;
+
+    BeerListKey ipaFirstPage = BeerListKey.of(BeerListKey.Mode.SLICE, null, BeerStyle.IPA, 1, 10, null);
+    BeerListKey ipaSecondPage = BeerListKey.of(BeerListKey.Mode.SLICE, null, BeerStyle.IPA, 2, 10, null);
+    BeerListKey lagerPage = BeerListKey.of(BeerListKey.Mode.PAGE, null, BeerStyle.LAGER, 1, 10, null);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        beerListCache = new BeerListCache(new ConcurrentMapCacheManager(BeerListCache.CACHE_NAME), meterRegistry);
+        loads = new AtomicInteger();
+        windows = new HashMap<>();
+        windows.put(ipaFirstPage, BeerListWindow.of(null, "Galaxy", false, false));
+        windows.put(ipaSecondPage, BeerListWindow.of("Hazy", "Zombie", true, false));
+        windows.put(lagerPage, BeerListWindow.of(null, "Stella", true, true));
+        loadAll();
+    }
+
+    @Test
+    void hitDoesNotReload() {
+        load(ipaFirstPage);
+
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(meterRegistry.counter("beer.list.cache.hits", "mode", "SLICE", "style", "IPA", "nameFilter", "false").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void inPlaceEditEvictsOnlyTheWindowShowingTheBeer() {
+        beerListCache.invalidate(BeerState.of("Juicy Bits", BeerStyle.IPA), BeerState.of("Juicy Bits", BeerStyle.IPA));
+
+        loadAll();
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(meterRegistry.counter("beer.list.cache.evictions", "mode", "SLICE", "style", "IPA", "nameFilter", "false").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void insertEvictsLaterOffsetWindowsOfMatchingFilterOnly() {
+        beerListCache.invalidate(null, BeerState.of("Aardvark", BeerStyle.IPA));
+
+        loadAll();
+        assertThat(loads.get()).isEqualTo(5);
+    }
+
+    @Test
+    void styleChangeEvictsBothFilters() {
+        beerListCache.invalidate(BeerState.of("Zombie", BeerStyle.IPA), BeerState.of("Zombie", BeerStyle.LAGER));
+
+        loadAll();
+        // IPA page one ends before "Zombie"; page two and the LAGER totals change
+        assertThat(loads.get()).isEqualTo(5);
+    }
+
+    @Test
+    void invalidationWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            beerListCache.invalidate(null, BeerState.of("Aardvark", BeerStyle.IPA));
+            loadAll();
+            assertThat(loads.get()).isEqualTo(3);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        loadAll();
+        assertThat(loads.get()).isEqualTo(5);
+    }
+
+    private void loadAll() {
+        load(ipaFirstPage);
+        load(ipaSecondPage);
+        load(lagerPage);
+    }
+
+    private void load(BeerListKey key) {
+        beerListCache.get(key, () -> {
+            loads.incrementAndGet();
+            return key.toString();
+        }, value -> windows.get(key));
+    }
+}
@@ -0,0 +1,129 @@
+package guru.springframework.spring6restmvc.cache;
+
+import guru.springframework.spring6restmvc.exceptions.IdempotencyKeyConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:18:30
+ */
+class IdempotencyStoreTest {
+
+    static final String SCOPE = "/api/v1/beer_order";
+    static final String USER = "user-1";
+
+    IdempotencyStore store;
+    AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), Duration.ofSeconds(5));
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    void repeatReturnsRecordedResult() {
+        // Given
+        IdempotencyStore.Result<String> first = store.execute(SCOPE, USER, "key", "request", () -> "order-" + executions.incrementAndGet());
+
+        // When
+        IdempotencyStore.Result<String> repeat = store.execute(SCOPE, USER, "key", "request", () -> "order-" + executions.incrementAndGet());
+
+        // Then
+        assertThat(first.replayed()).isFalse();
+        assertThat(repeat.replayed()).isTrue();
+        assertThat(repeat.value()).isEqualTo("order-1");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstRun() throws Exception {
+        // Given
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        Future<IdempotencyStore.Result<String>> first = executor.submit(() -> store.execute(SCOPE, USER, "key", "request", () -> {
+            running.countDown();
+            await(release);
+            return "order-" + executions.incrementAndGet();
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        List<Future<IdempotencyStore.Result<String>>> duplicates = IntStream.range(0, 7)
+                .mapToObj(i -> executor.submit(() -> store.execute(SCOPE, USER, "key", "request",
+                        () -> "order-" + executions.incrementAndGet())))
+                .toList();
+        release.countDown();
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS).value()).isEqualTo("order-1");
+        for (Future<IdempotencyStore.Result<String>> duplicate : duplicates) {
+            assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo(new IdempotencyStore.Result<>("order-1", true));
+        }
+        assertThat(executions).hasValue(1);
+        executor.shutdown();
+    }
+
+    @Test
+    void keyReusedForDifferentRequestIsRejected() {
+        // Given
+        store.execute(SCOPE, USER, "key", "request", () -> "order");
+
+        // When / Then
+        assertThatThrownBy(() -> store.execute(SCOPE, USER, "key", "other request", () -> "other order"))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+    }
+
+    @Test
+    void sameKeyFromAnotherCallerRunsSeparately() {
+        // Given
+        store.execute(SCOPE, USER, "key", "request", () -> "order-" + executions.incrementAndGet());
+
+        // When
+        IdempotencyStore.Result<String> other = store.execute(SCOPE, "someone-else", "key", "other request",
+                () -> "order-" + executions.incrementAndGet());
+
+        // Then
+        assertThat(other).isEqualTo(new IdempotencyStore.Result<>("order-2", false));
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void failedRunIsForgotten() {
+        // Given
+        assertThatThrownBy(() -> store.execute(SCOPE, USER, "key", "request", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // When
+        IdempotencyStore.Result<String> retry = store.execute(SCOPE, USER, "key", "request", () -> "order");
+
+        // Then
+        assertThat(retry).isEqualTo(new IdempotencyStore.Result<>("order", false));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package guru.springframework.spring6restmvc.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import guru.springframework.spring6restmvc.cache.BeerListCache;
+import guru.springframework.spring6restmvc.model.CursorPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:05:44
+ */
+class CacheConfigTest {
+
+    @Test
+    void caffeineAppliesPolicy() {
+        CachePolicyProperties.Policy policy = new CachePolicyProperties.Policy();
+        policy.setMaximumSize(10L);
+        policy.setExpireAfterWrite(Duration.ofMinutes(1));
+
+        Cache<Object, Object> cache = CacheConfig.caffeine("beerCache", policy).build();
+
+        assertThat(cache.policy().eviction()).isPresent();
+        assertThat(cache.policy().eviction().get().getMaximum()).isEqualTo(10L);
+        assertThat(cache.policy().expireAfterWrite()).isPresent();
+        assertThat(cache.policy().isRecordingStats()).isTrue();
+    }
+
+    @Test
+    void caffeineRejectsSizeAndWeight() {
+        CachePolicyProperties.Policy policy = new CachePolicyProperties.Policy();
+        policy.setMaximumSize(10L);
+        policy.setMaximumWeight(100L);
+
+        assertThrows(IllegalStateException.class, () -> CacheConfig.caffeine("beerListCache", policy));
+    }
+
+    @Test
+    void weighCountsListElements() {
+        assertThat(CacheConfig.weigh(new PageImpl<>(List.of("a", "b", "c")))).isEqualTo(3);
+        assertThat(CacheConfig.weigh(CursorPage.builder().content(List.of("a", "b")).build())).isEqualTo(2);
+        assertThat(CacheConfig.weigh(List.of())).isEqualTo(1);
+        assertThat(CacheConfig.weigh("single")).isEqualTo(1);
+        assertThat(CacheConfig.weigh(new BeerListCache.Entry<>(List.of("a", "b"), null))).isEqualTo(2);
+    }
+}
@@ -63,6 +63,25 @@ class BeerControllerIT {
         Assertions.assertThat(beerDTOS.getLast().getBeerName()).containsIgnoringCase(RISE);
     }
 
+    @Test
+    void listBeersByBeerNameSeesBeerJustSaved() {
+        BeerDTO beerDTO = BeerDTO.builder().beerName("Quixotic Quokka Ale")
+                .beerStyle(BeerStyle.ALE).upc("1234567890123")
+                .price(BigDecimal.TEN)
+                .quantityOnHand(10)
+                .build();
+        BeerDTO savedBeerDTO = beerController.save(beerDTO, new MockHttpServletResponse());
+        try {
+            List<BeerDTO> beerDTOS = (List<BeerDTO>) beerController.listBeers("quokka", null, null, null).get("content");
+            assertEquals(1, beerDTOS.size());
+            assertEquals(savedBeerDTO.getId(), beerDTOS.getFirst().getId());
+        } finally {
+            beerController.deleteCustomer(savedBeerDTO.getId());
+        }
+        List<BeerDTO> afterDelete = (List<BeerDTO>) beerController.listBeers("quokka", null, null, null).get("content");
+        assertEquals(0, afterDelete.size());
+    }
+
     @Test
     void getById() {
         UUID beerId = beerRepository.findAll().getFirst().getId();
@@ -3,6 +3,7 @@ package guru.springframework.spring6restmvc.controller;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import guru.springframework.spring6restmvc.model.CursorPage;
 import guru.springframework.spring6restmvcapi.model.BeerDTO;
 import guru.springframework.spring6restmvcapi.model.BeerSearchCriteria;
 import guru.springframework.spring6restmvcapi.enums.BeerStyle;
@@ -141,6 +142,23 @@ class BeerControllerTest {
         assertThat(captor2.getValue().get()).isEqualTo(BeerStyle.WHEAT);
     }
 
+    @Test
+    void listBeersAfterCursor() throws Exception {
+        //given
+        given(beerService.listBeersAfter(any(), any(), any(), any())).willReturn(CursorPage.<BeerDTO>builder()
+                .content(List.of(fooBeer)).nextCursor("abc").pageSize(1).build());
+
+        //when
+        mockMvc.perform(MockMvcRequestBuilders.get(BeerController.PATH + "?after=&pageSize=1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value("abc"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.last").value(false));
+
+        //then
+        Mockito.verify(beerService, Mockito.never()).listBeers(any(), any(), any(), any());
+    }
+
     @Test
     void getById() throws Exception {
         //given
@@ -1,8 +1,12 @@
 package guru.springframework.spring6restmvc.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6restmvc.cache.IdempotencyStore;
+import guru.springframework.spring6restmvc.intake.BeerOrderIntake;
+import guru.springframework.spring6restmvc.model.BeerOrderIntakeTicket;
 import guru.springframework.spring6restmvcapi.model.*;
 import guru.springframework.spring6restmvc.services.BeerOrderServiceImpl;
+import guru.springframework.spring6restmvc.streams.OrderLineEventHub;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,12 +16,15 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +32,7 @@ import java.util.Set;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 
 /**
  * Author:john
@@ -37,6 +45,15 @@ class BeerOrderControllerTest {
     @Mock
     BeerOrderServiceImpl beerOrderService;
 
+    @Mock
+    IdempotencyStore idempotencyStore;
+
+    @Mock
+    OrderLineEventHub orderLineEventHub;
+
+    @Mock
+    BeerOrderIntake beerOrderIntake;
+
     @InjectMocks
     BeerOrderController beerOrderController;
 
@@ -79,6 +96,22 @@ class BeerOrderControllerTest {
         System.out.println(mvcResult.getResponse().getContentAsString());
     }
 
+    @Test
+    void listBeerOrderSlice() throws Exception {
+        // Given
+        BDDMockito.given(beerOrderService.listOrderSlice(any(), any()))
+                .willReturn(new SliceImpl<>(List.of(beerOrderDTO1), PageRequest.of(0, 1), true));
+        BDDMockito.given(beerOrderService.approximateCount()).willReturn(2L);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BeerOrderController.PATH + "?slice=true&pageSize=1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasNext").value(true))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.approximateTotalElements").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").doesNotExist());
+        Mockito.verify(beerOrderService, Mockito.never()).listOrders(any(), any());
+    }
+
     @Test
     void getBeerOrderById() throws Exception {
         BDDMockito.given(beerOrderService.getOrderById(any(UUID.class))).willReturn(Optional.of(beerOrderDTO1));
@@ -111,6 +144,86 @@ class BeerOrderControllerTest {
         System.out.println(captor.getValue());
     }
 
+    @Test
+    void createBeerOrderReplaysIdempotentRequest() throws Exception {
+        // Given
+        BDDMockito.given(idempotencyStore.execute(eq(BeerOrderController.PATH), eq("user-1"), eq("key-1"), any(), any()))
+                .willReturn(new IdempotencyStore.Result<>(beerOrderDTO1, true));
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.post(BeerOrderController.PATH)
+                        .header(BeerOrderController.IDEMPOTENCY_KEY, "key-1")
+                        .principal(() -> "user-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(BeerOrderCreateDTO.builder().customerId(UUID.randomUUID())
+                                .orderLines(Set.of(BeerOrderLineCreateDTO.builder().beerRef(UUID.randomUUID()).orderQuantity(2).build())).build())))
+                // Then
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.header().string(BeerOrderController.IDEMPOTENT_REPLAYED, "true"))
+                .andExpect(MockMvcResultMatchers.header().stringValues("Location", BeerOrderController.PATH+"/"+beerOrderDTO1.getId()));
+        Mockito.verify(beerOrderService, Mockito.never()).createOrder(any(BeerOrderCreateDTO.class));
+    }
+
+    @Test
+    void submitBeerOrderAccepted() throws Exception {
+        // Given
+        BeerOrderIntakeTicket ticket = BeerOrderIntakeTicket.builder().id(UUID.randomUUID())
+                .status(BeerOrderIntakeTicket.Status.QUEUED).build();
+        BDDMockito.given(beerOrderIntake.submit(any(BeerOrderCreateDTO.class))).willReturn(Optional.of(ticket));
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.post(BeerOrderController.PATH).param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(BeerOrderCreateDTO.builder().customerId(UUID.randomUUID())
+                                .orderLines(Set.of(BeerOrderLineCreateDTO.builder().beerRef(UUID.randomUUID()).orderQuantity(2).build())).build())))
+                // Then
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().string("Location", BeerOrderController.INTAKE_PATH + "/" + ticket.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", Matchers.equalTo("QUEUED")));
+        Mockito.verify(beerOrderService, Mockito.never()).createOrder(any(BeerOrderCreateDTO.class));
+    }
+
+    @Test
+    void submitBeerOrderQueueFull() throws Exception {
+        // Given
+        BDDMockito.given(beerOrderIntake.submit(any(BeerOrderCreateDTO.class))).willReturn(Optional.empty());
+        BDDMockito.given(beerOrderIntake.retryAfterSeconds()).willReturn(2L);
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.post(BeerOrderController.PATH).param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(BeerOrderCreateDTO.builder().customerId(UUID.randomUUID())
+                                .orderLines(Set.of(BeerOrderLineCreateDTO.builder().beerRef(UUID.randomUUID()).orderQuantity(2).build())).build())))
+                // Then
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().string("Retry-After", "2"));
+    }
+
+    @Test
+    void streamBeerOrderEvents() throws Exception {
+        // Given
+        BDDMockito.given(beerOrderService.orderExists(beerOrderDTO1.getId())).willReturn(true);
+        BDDMockito.given(orderLineEventHub.subscribeOrder(beerOrderDTO1.getId())).willReturn(new SseEmitter());
+
+        // When / Then
+        mockMvc.perform(MockMvcRequestBuilders.get(BeerOrderController.PATH + "/" + beerOrderDTO1.getId() + "/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+        Mockito.verify(orderLineEventHub).subscribeOrder(beerOrderDTO1.getId());
+    }
+
+    @Test
+    void streamBeerOrderEventsUnknownOrder() throws Exception {
+        // Given
+        BDDMockito.given(beerOrderService.orderExists(any(UUID.class))).willReturn(false);
+
+        // When / Then
+        mockMvc.perform(MockMvcRequestBuilders.get(BeerOrderController.PATH + "/" + UUID.randomUUID() + "/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        Mockito.verifyNoInteractions(orderLineEventHub);
+    }
+
     @Test
     void updateBeerOrder() throws Exception {
         beerOrderDTO1.getCustomer().setName("Alice");
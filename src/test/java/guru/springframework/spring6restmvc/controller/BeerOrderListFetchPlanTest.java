@@ -0,0 +1,107 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.domain.Beer;
+import guru.springframework.spring6restmvc.domain.BeerOrder;
+import guru.springframework.spring6restmvc.domain.BeerOrderLine;
+import guru.springframework.spring6restmvc.domain.BeerOrderShipment;
+import guru.springframework.spring6restmvc.domain.Customer;
+import guru.springframework.spring6restmvc.repository.BeerOrderRepository;
+import guru.springframework.spring6restmvc.repository.BeerRepository;
+import guru.springframework.spring6restmvc.repository.CustomerRepository;
+import guru.springframework.spring6restmvc.repository.StatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+
+/**
+ * Guards the order listing against N+1: a page costs the id query, its count and one graph query, however many
+ * orders, lines and shipments it holds.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:17:40
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=guru.springframework.spring6restmvc.repository.StatementCounter")
+class BeerOrderListFetchPlanTest {
+
+    static final int PAGE_SIZE = 10;
+    static final int LINES_PER_ORDER = 3;
+
+    @Autowired
+    WebApplicationContext wac;
+
+    @Autowired
+    BeerOrderRepository beerOrderRepository;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    MockMvc mockMvc;
+    TransactionTemplate transactionTemplate;
+    List<BeerOrder> savedOrders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac).apply(SecurityMockMvcConfigurers.springSecurity()).build();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Beer> beers = beerRepository.findAll();
+            List<Customer> customers = customerRepository.findAll();
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                int offset = i;
+                Set<BeerOrderLine> lines = beers.stream().skip(offset).limit(LINES_PER_ORDER)
+                        .map(beer -> BeerOrderLine.builder().beer(beer).orderQuantity(1).build())
+                        .collect(Collectors.toCollection(HashSet::new));
+                savedOrders.add(beerOrderRepository.save(BeerOrder.builder()
+                        .customer(customers.get(i % customers.size()))
+                        .orderLines(lines)
+                        .beerOrderShipment(BeerOrderShipment.builder().trackingNumber("track-" + i).build())
+                        .build()));
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status ->
+                beerOrderRepository.deleteAllById(savedOrders.stream().map(BeerOrder::getId).toList()));
+    }
+
+    @Test
+    void pageOfOrdersCostsAFixedNumberOfStatements() throws Exception {
+        StatementCounter.start();
+        mockMvc.perform(MockMvcRequestBuilders.get(BeerOrderController.PATH)
+                        .with(jwt())
+                        .queryParam("pageSize", String.valueOf(PAGE_SIZE)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(PAGE_SIZE));
+
+        // ids of the page, the total (skipped when the page is the whole table), then the full graph of the page
+        assertThat(StatementCounter.stop()).isBetween(2, 3);
+    }
+}
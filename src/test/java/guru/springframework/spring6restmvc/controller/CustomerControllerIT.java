@@ -13,7 +13,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.annotation.Rollback;
 
-import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -36,8 +36,21 @@ public class CustomerControllerIT {
 
     @Test
     void getListOfCustomers() {
-        List<CustomerDTO> customerDTOS = customerController.listCustomers();
-        assertThat((long) customerDTOS.size(), equalTo(customerRepository.count()));
+        Map<String, Object> page = customerController.listCustomers(null, null);
+        assertThat(((Number) page.get("totalElements")).longValue(), equalTo(customerRepository.count()));
+    }
+
+    @Test
+    void getOrdersOfCustomer() {
+        Customer customer = customerRepository.findAll().getFirst();
+        Map<String, Object> page = customerController.listCustomerOrders(customer.getId(), null, null);
+        assertThat(page.get("pageNumber"), equalTo(0));
+    }
+
+    @Test
+    void getOrdersOfCustomerNotFound() {
+        Assertions.assertThrows(NotFoundException.class, () ->
+                customerController.listCustomerOrders(UUID.randomUUID(), null, null));
     }
 
     @Test
@@ -3,8 +3,12 @@ package guru.springframework.spring6restmvc.controller;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import guru.springframework.spring6restmvc.config.SpringSecurityConfig;
+import guru.springframework.spring6restmvc.model.CursorPage;
 import guru.springframework.spring6restmvcapi.model.CustomerDTO;
+import guru.springframework.spring6restmvc.services.BeerOrderService;
 import guru.springframework.spring6restmvc.services.CustomerService;
+import guru.springframework.spring6restmvc.streams.OrderLineEventHub;
+import guru.springframework.spring6restmvcapi.model.BeerOrderDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
@@ -14,6 +18,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -54,6 +59,12 @@ class CustomerControllerTest {
     @MockBean
     CustomerService customerService;
 
+    @MockBean
+    BeerOrderService beerOrderService;
+
+    @MockBean
+    OrderLineEventHub orderLineEventHub;
+
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
@@ -66,7 +77,7 @@ class CustomerControllerTest {
     @Test
     void listCustomers() throws Exception {
         // Given
-        Mockito.when(customerService.listCustomers()).thenReturn(List.of(JOHN, JANE));
+        Mockito.when(customerService.listCustomers(null, null)).thenReturn(new PageImpl<>(List.of(JOHN, JANE)));
 
         // When
         mockMvc.perform(MockMvcRequestBuilders.get(BASE_PATH)
@@ -74,13 +85,60 @@ class CustomerControllerTest {
                                 .with(jwt()))
                 // Then
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].id").value(JOHN.getId().toString()))
-                .andExpect(jsonPath("$[1].id").value(JANE.getId().toString()))
-                .andExpect(jsonPath("$[0].name").value(JOHN.getName()))
-                .andExpect(jsonPath("$[1].name").value(JANE.getName()));
-        Mockito.verify(customerService, Mockito.times(1)).listCustomers();
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(JOHN.getId().toString()))
+                .andExpect(jsonPath("$.content[1].id").value(JANE.getId().toString()))
+                .andExpect(jsonPath("$.content[0].name").value(JOHN.getName()))
+                .andExpect(jsonPath("$.content[1].name").value(JANE.getName()))
+                .andExpect(jsonPath("$.totalElements").value(2));
+        Mockito.verify(customerService, Mockito.times(1)).listCustomers(null, null);
+    }
+
+    @Test
+    void listCustomerOrders() throws Exception {
+        // Given
+        BeerOrderDTO order = BeerOrderDTO.builder().id(UUID.randomUUID()).customer(JOHN).build();
+        Mockito.when(beerOrderService.listOrdersByCustomer(JOHN.getId(), null, 5))
+                .thenReturn(Optional.of(new PageImpl<>(List.of(order))));
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get(BASE_PATH + "/" + JOHN.getId() + "/orders?pageSize=5")
+                        .with(jwt()))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(order.getId().toString()));
+    }
+
+    @Test
+    void listCustomerOrdersAfter() throws Exception {
+        // Given
+        BeerOrderDTO order = BeerOrderDTO.builder().id(UUID.randomUUID()).customer(JOHN).build();
+        Mockito.when(beerOrderService.listOrdersByCustomerAfter(JOHN.getId(), Optional.of("abc"), Optional.of(1)))
+                .thenReturn(Optional.of(CursorPage.<BeerOrderDTO>builder().content(List.of(order)).nextCursor("def").pageSize(1).build()));
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get(BASE_PATH + "/" + JOHN.getId() + "/orders?after=abc&pageSize=1")
+                        .with(jwt()))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(order.getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").value("def"))
+                .andExpect(jsonPath("$.last").value(false));
+    }
+
+    @Test
+    void listCustomerOrdersNotFound() throws Exception {
+        // Given
+        Mockito.when(beerOrderService.listOrdersByCustomer(ArgumentMatchers.any(UUID.class), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(Optional.empty());
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get(BASE_PATH + "/" + UUID.randomUUID() + "/orders")
+                        .with(jwt()))
+                // Then
+                .andExpect(status().isNotFound());
     }
 
     @Test
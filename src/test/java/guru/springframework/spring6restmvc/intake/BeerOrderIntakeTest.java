@@ -0,0 +1,97 @@
+package guru.springframework.spring6restmvc.intake;
+
+import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.model.BeerOrderIntakeTicket;
+import guru.springframework.spring6restmvc.services.BeerOrderService;
+import guru.springframework.spring6restmvcapi.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvcapi.model.BeerOrderDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:19:55
+ */
+@ExtendWith(MockitoExtension.class)
+class BeerOrderIntakeTest {
+
+    @Mock
+    BeerOrderService beerOrderService;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    SimpleMeterRegistry meterRegistry;
+    BeerOrderIntake beerOrderIntake;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // no workers, so queued orders stay put until a test processes them
+        beerOrderIntake = new BeerOrderIntake(beerOrderService, transactionManager, meterRegistry,
+                2, 0, 50, Duration.ofMillis(1500), Duration.ofHours(1), 100);
+    }
+
+    @Test
+    void fullQueueRefusesOrder() {
+        // Given
+        beerOrderIntake.submit(order());
+        beerOrderIntake.submit(order());
+
+        // When
+        boolean accepted = beerOrderIntake.submit(order()).isPresent();
+
+        // Then
+        assertFalse(accepted);
+        assertEquals(1, meterRegistry.counter("beer.order.intake.rejected").count());
+        assertEquals(2, beerOrderIntake.retryAfterSeconds());
+    }
+
+    @Test
+    void failedBatchIsRetriedOneByOne() {
+        // Given
+        BeerOrderCreateDTO good = order();
+        BeerOrderCreateDTO bad = order();
+        BeerOrderIntakeTicket goodTicket = beerOrderIntake.submit(good).orElseThrow();
+        BeerOrderIntakeTicket badTicket = beerOrderIntake.submit(bad).orElseThrow();
+        UUID orderId = UUID.randomUUID();
+        BDDMockito.given(beerOrderService.createOrder(good)).willReturn(BeerOrderDTO.builder().id(orderId).build());
+        BDDMockito.given(beerOrderService.createOrder(bad)).willThrow(new NotFoundException("Order refers to unknown beer"));
+
+        // When
+        beerOrderIntake.process(List.of(
+                new BeerOrderIntake.Submission(goodTicket.getId(), good, System.nanoTime()),
+                new BeerOrderIntake.Submission(badTicket.getId(), bad, System.nanoTime())));
+
+        // Then
+        BeerOrderIntakeTicket created = beerOrderIntake.getTicket(goodTicket.getId()).orElseThrow();
+        assertEquals(BeerOrderIntakeTicket.Status.CREATED, created.getStatus());
+        assertEquals(orderId, created.getOrderId());
+        BeerOrderIntakeTicket failed = beerOrderIntake.getTicket(badTicket.getId()).orElseThrow();
+        assertEquals(BeerOrderIntakeTicket.Status.FAILED, failed.getStatus());
+        assertEquals("Order refers to unknown beer", failed.getError());
+        // once in the batch, once on its own
+        verify(beerOrderService, times(2)).createOrder(good);
+        assertEquals(1, meterRegistry.counter("beer.order.intake.created").count());
+        assertEquals(1, meterRegistry.counter("beer.order.intake.failed").count());
+    }
+
+    private static BeerOrderCreateDTO order() {
+        return BeerOrderCreateDTO.builder().customerId(UUID.randomUUID()).build();
+    }
+}
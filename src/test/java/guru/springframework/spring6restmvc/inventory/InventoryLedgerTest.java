@@ -0,0 +1,179 @@
+package guru.springframework.spring6restmvc.inventory;
+
+import guru.springframework.spring6restmvc.domain.Beer;
+import guru.springframework.spring6restmvc.exceptions.InsufficientInventoryException;
+import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.model.InventoryLevel;
+import guru.springframework.spring6restmvc.repository.BeerRepository;
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:16:40
+ */
+@SpringBootTest(properties = "app.inventory.flush-interval=1h")
+class InventoryLedgerTest {
+
+    @Autowired
+    InventoryLedger inventoryLedger;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    TransactionTemplate transactionTemplate;
+    Beer beer;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        beer = beerRepository.saveAndFlush(Beer.builder().beerName("Inventory Test").beerStyle(BeerStyle.LAGER)
+                .upc("0631234200036").price(new BigDecimal("9.99")).quantityOnHand(1000).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryLedger.forget(beer.getId());
+        beerRepository.deleteById(beer.getId());
+    }
+
+    @Test
+    void concurrentAdjustmentsAreFlushedAsOneRelativeUpdate() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            int delta = i % 2 == 0 ? 3 : -2;
+            executor.submit(() -> inventoryLedger.adjust(beer.getId(), delta));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThat(inventoryLedger.onHand(beer.getId())).contains(1500);
+        assertThat(beerRepository.findById(beer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(1000);
+
+        assertThat(inventoryLedger.flush()).isEqualTo(1);
+        Beer stored = beerRepository.findById(beer.getId()).orElseThrow();
+        assertThat(stored.getQuantityOnHand()).isEqualTo(1500);
+        assertThat(stored.getVersion()).isEqualTo(beer.getVersion());
+        assertThat(inventoryLedger.onHand(beer.getId())).contains(1500);
+    }
+
+    @Test
+    void rejectsWithdrawalLargerThanStock() {
+        // Given
+        InventoryLevel level = inventoryLedger.adjust(beer.getId(), -990);
+
+        // When / Then
+        assertThat(level.getQuantityOnHand()).isEqualTo(10);
+        assertThat(level.getPendingDelta()).isEqualTo(-990);
+        assertThatThrownBy(() -> inventoryLedger.adjust(beer.getId(), -11)).isInstanceOf(InsufficientInventoryException.class);
+        assertThat(inventoryLedger.onHand(beer.getId())).contains(10);
+    }
+
+    @Test
+    void flushRefusesDeltaThatWouldTakeStockBelowZero() {
+        // Given
+        inventoryLedger.adjust(beer.getId(), -990);
+        double conflicts = meterRegistry.counter("inventory.conflicts").count();
+        // another replica has already written back its own withdrawal of the same stock
+        jdbcTemplate.update("update beer set quantity_on_hand = quantity_on_hand - 995 where id = ?", beer.getId().toString());
+
+        // When
+        inventoryLedger.flush();
+
+        // Then
+        assertThat(beerRepository.findById(beer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(5);
+        assertThat(inventoryLedger.onHand(beer.getId())).contains(5);
+        assertThat(meterRegistry.counter("inventory.conflicts").count()).isEqualTo(conflicts + 1);
+        assertThat(inventoryLedger.flush()).isZero();
+    }
+
+    @Test
+    void resetDiscardsPendingDeltas() {
+        // Given
+        inventoryLedger.adjust(beer.getId(), 5);
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            setQuantity(42);
+            inventoryLedger.reset(beer.getId());
+        });
+
+        // Then
+        assertThat(inventoryLedger.onHand(beer.getId())).contains(42);
+        assertThat(inventoryLedger.flush()).isZero();
+    }
+
+    @Test
+    void resetReadsQuantityStoredByFlushAfterCommit() {
+        // Given
+        inventoryLedger.adjust(beer.getId(), 5);
+        ExecutorService flusher = Executors.newSingleThreadExecutor();
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            setQuantity(42);
+            // the flusher gets in between the commit of the update and the reset callback
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        flusher.submit(inventoryLedger::flush).get();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            inventoryLedger.reset(beer.getId());
+        });
+        flusher.shutdown();
+
+        // Then
+        assertThat(beerRepository.findById(beer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(47);
+        assertThat(inventoryLedger.onHand(beer.getId())).contains(47);
+        assertThat(inventoryLedger.flush()).isZero();
+    }
+
+    @Test
+    void unknownBeerIsNotFound() {
+        assertThatThrownBy(() -> inventoryLedger.adjust(UUID.randomUUID(), 1)).isInstanceOf(NotFoundException.class);
+    }
+
+    private void setQuantity(int quantity) {
+        Beer stored = beerRepository.findById(beer.getId()).orElseThrow();
+        stored.setQuantityOnHand(quantity);
+        beerRepository.saveAndFlush(stored);
+    }
+}
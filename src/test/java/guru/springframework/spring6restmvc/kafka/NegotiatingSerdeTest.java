@@ -0,0 +1,133 @@
+package guru.springframework.spring6restmvc.kafka;
+
+import guru.springframework.spring6restmvc.config.KafkaConfig;
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
+import guru.springframework.spring6restmvcapi.events.OrderPlacedEvent;
+import guru.springframework.spring6restmvcapi.model.BeerDTO;
+import guru.springframework.spring6restmvcapi.model.BeerOrderDTO;
+import guru.springframework.spring6restmvcapi.model.BeerOrderLineDTO;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:15:30
+ */
+class NegotiatingSerdeTest {
+
+    NegotiatingSerializer serializer;
+    NegotiatingDeserializer deserializer;
+
+    @BeforeEach
+    void setUp() {
+        serializer = new NegotiatingSerializer();
+        serializer.configure(Map.of(KafkaContentType.BINARY_TOPICS_CONFIG, KafkaConfig.ORDER_PLACED_TOPIC), false);
+        deserializer = new NegotiatingDeserializer();
+        deserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "*"), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Test
+    void binaryTopicRoundTripsAsSmile() {
+        // Given
+        OrderPlacedEvent event = orderPlaced(5);
+        RecordHeaders headers = new RecordHeaders();
+
+        // When
+        byte[] payload = serializer.serialize(KafkaConfig.ORDER_PLACED_TOPIC, headers, event);
+        Object read = deserializer.deserialize(KafkaConfig.ORDER_PLACED_TOPIC, headers, payload);
+
+        // Then
+        assertThat(contentType(headers)).isEqualTo(KafkaContentType.SMILE.getMimeType());
+        assertThat(read).isEqualTo(event);
+    }
+
+    @Test
+    void otherTopicsStayJson() {
+        // Given
+        OrderPlacedEvent event = orderPlaced(1);
+        RecordHeaders headers = new RecordHeaders();
+
+        // When
+        byte[] payload = serializer.serialize(KafkaConfig.DRINK_REQUEST_COLD_TOPIC, headers, event);
+
+        // Then
+        assertThat(contentType(headers)).isEqualTo(KafkaContentType.JSON.getMimeType());
+        assertThat(new String(payload, StandardCharsets.UTF_8)).startsWith("{");
+        assertThat(deserializer.deserialize(KafkaConfig.DRINK_REQUEST_COLD_TOPIC, headers, payload)).isEqualTo(event);
+    }
+
+    @Test
+    void readsRecordsFromPlainJsonProducers() {
+        // Given
+        OrderPlacedEvent event = orderPlaced(2);
+        RecordHeaders headers = new RecordHeaders();
+        byte[] payload;
+        try (JsonSerializer<Object> legacy = new JsonSerializer<>()) {
+            payload = legacy.serialize(KafkaConfig.ORDER_PLACED_TOPIC, headers, event);
+        }
+
+        // When
+        Object read = deserializer.deserialize(KafkaConfig.ORDER_PLACED_TOPIC, headers, payload);
+
+        // Then
+        assertThat(headers.lastHeader(KafkaContentType.HEADER)).isNull();
+        assertThat(read).isEqualTo(event);
+    }
+
+    @Test
+    void smileIsSmallerThanJson() {
+        // Given
+        OrderPlacedEvent event = orderPlaced(20);
+
+        // When
+        byte[] smile = serializer.serialize(KafkaConfig.ORDER_PLACED_TOPIC, new RecordHeaders(), event);
+        byte[] json = serializer.serialize(KafkaConfig.DRINK_REQUEST_COLD_TOPIC, new RecordHeaders(), event);
+
+        // Then
+        assertThat(smile.length).isLessThan(json.length);
+    }
+
+    private static String contentType(RecordHeaders headers) {
+        return new String(headers.lastHeader(KafkaContentType.HEADER).value(), StandardCharsets.UTF_8);
+    }
+
+    private static OrderPlacedEvent orderPlaced(int lines) {
+        Set<BeerOrderLineDTO> orderLines = IntStream.range(0, lines)
+                .mapToObj(i -> BeerOrderLineDTO.builder()
+                        .id(UUID.randomUUID())
+                        .orderQuantity(i + 1)
+                        .beer(BeerDTO.builder()
+                                .id(UUID.randomUUID())
+                                .beerName("Beer " + i)
+                                .beerStyle(BeerStyle.IPA)
+                                .upc("0631234200036")
+                                .price(new BigDecimal("12.99"))
+                                .build())
+                        .build())
+                .collect(Collectors.toSet());
+        return OrderPlacedEvent.builder()
+                .beerOrderDTO(BeerOrderDTO.builder().id(UUID.randomUUID()).customerRef("customer-ref").orderLines(orderLines).build())
+                .build();
+    }
+}
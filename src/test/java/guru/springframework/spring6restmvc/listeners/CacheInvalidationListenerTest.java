@@ -0,0 +1,115 @@
+package guru.springframework.spring6restmvc.listeners;
+
+import guru.springframework.spring6restmvc.cache.CacheInvalidationPublisher;
+import guru.springframework.spring6restmvc.config.KafkaConfig;
+import guru.springframework.spring6restmvc.events.CacheInvalidationEvent;
+import guru.springframework.spring6restmvc.repository.BeerNameIndex;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:06:41
+ */
+@SpringBootTest
+@EmbeddedKafka(controlledShutdown = true, topics = {KafkaConfig.CACHE_INVALIDATION_TOPIC}, partitions = 1, kraft = true)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class CacheInvalidationListenerTest {
+
+    @Autowired
+    KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    @Autowired
+    KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    CacheInvalidationPublisher cacheInvalidationPublisher;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    BeerNameIndex beerNameIndex;
+
+    Cache beerCountCache;
+
+    @BeforeEach
+    void setup() {
+        kafkaListenerEndpointRegistry.getListenerContainers().forEach(messageListenerContainer -> {
+            ContainerTestUtils.waitForAssignment(messageListenerContainer, 1);
+        });
+        beerCountCache = cacheManager.getCache("beerCountCache");
+    }
+
+    @Test
+    void evictsKeysPublishedByAnotherNode() {
+        // Given
+        UUID key = UUID.randomUUID();
+        beerCountCache.put(key, "cached");
+
+        // When
+        kafkaTemplate.send(KafkaConfig.CACHE_INVALIDATION_TOPIC, CacheInvalidationEvent.builder()
+                .nodeId("other-node")
+                .evictedKeys(Map.of("beerCountCache", Set.of(key)))
+                .build());
+
+        // Then
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertNull(beerCountCache.get(key)));
+    }
+
+    @Test
+    void ignoresOwnInvalidations() {
+        // Given
+        UUID ownId = UUID.randomUUID();
+        UUID markerId = UUID.randomUUID();
+        beerCountCache.put(ownId, "cached");
+        beerCountCache.put(markerId, "cached");
+
+        // When
+        cacheInvalidationPublisher.evict("beerCountCache", ownId);
+        cacheInvalidationPublisher.flush();
+        kafkaTemplate.send(KafkaConfig.CACHE_INVALIDATION_TOPIC, CacheInvalidationEvent.builder()
+                .nodeId("other-node")
+                .evictedKeys(Map.of("beerCountCache", Set.of(markerId)))
+                .build());
+
+        // Then - the marker sent after our own batch is gone, so our batch was consumed and skipped
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertNull(beerCountCache.get(markerId)));
+        assertNotNull(beerCountCache.get(ownId));
+    }
+
+    @Test
+    void refreshesNameIndexForBeerNameChanges() {
+        // Given - indexed here, but gone from the table
+        UUID beerId = UUID.randomUUID();
+        beerNameIndex.put(beerId, "Phantom Porter");
+
+        // When
+        kafkaTemplate.send(KafkaConfig.CACHE_INVALIDATION_TOPIC, CacheInvalidationEvent.builder()
+                .nodeId("other-node")
+                .beerNameChanges(Set.of(beerId))
+                .build());
+
+        // Then
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                assertFalse(beerNameIndex.candidates("Phantom Porter").orElseThrow().contains(beerId)));
+    }
+}
@@ -18,6 +18,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -73,9 +74,9 @@ class DrinkPreparedListenerIT {
     @Transactional
     @Test
     void drinkPrepared() {
-        drinkPreparedListener.drinkPrepared(DrinkPreparedEvent.builder()
+        drinkPreparedListener.drinksPrepared(List.of(DrinkPreparedEvent.builder()
                 .beerOrderLine(beerOrderLineDTO)
-                .build());
+                .build()));
         Optional<BeerOrderLine> updatedOrderLine = beerOrderLineRepository.findById(beerOrderLineDTO.getId());
         assertTrue(updatedOrderLine.isPresent());
         assertEquals(BeerOrderLineStatus.COMPLETE, updatedOrderLine.get().getStatus());
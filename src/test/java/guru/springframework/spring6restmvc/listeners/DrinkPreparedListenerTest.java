@@ -12,15 +12,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.BDDMockito;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -41,6 +45,9 @@ class DrinkPreparedListenerTest {
     @InjectMocks
     DrinkPreparedListener listener;
 
+    @Captor
+    ArgumentCaptor<List<BeerOrderLineDTO>> linesCaptor;
+
     BeerOrderLineDTO beerOrderLineDTO;
 
     DrinkPreparedEvent event;
@@ -55,27 +62,33 @@ class DrinkPreparedListenerTest {
         event = new DrinkPreparedEvent(beerOrderLineDTO);
     }
 
-    // Verify that when a valid DrinkPreparedEvent is received, the BeerOrderLine status is updated to COMPLETE
+    // Verify that a DrinkPreparedEvent completes its BeerOrderLine through the set-based update
     @Test
-    public void test_valid_drink_prepared_event_updates_status_to_complete() {
+    public void test_valid_drink_prepared_event_completes_line() {
         // Given
-        BDDMockito.given(mockBeerOrderLineService.update(any(UUID.class), any(BeerOrderLineDTO.class))).willReturn(beerOrderLineDTO);
-        ArgumentCaptor<UUID> captor = ArgumentCaptor.forClass(UUID.class);
-        ArgumentCaptor<BeerOrderLineDTO> beerOrderLineDTOCaptor = ArgumentCaptor.forClass(BeerOrderLineDTO.class);
-        assertEquals(BeerOrderLineStatus.NEW, beerOrderLineDTO.getStatus());
+        BDDMockito.given(mockBeerOrderLineService.completeLines(anyList())).willReturn(1);
 
         // When
-        listener.drinkPrepared(event);
+        listener.drinksPrepared(List.of(event));
 
         // Then
-        assertEquals(BeerOrderLineStatus.COMPLETE, beerOrderLineDTO.getStatus());
-        verify(mockBeerOrderLineService).update(captor.capture(), beerOrderLineDTOCaptor.capture());
-        assertEquals(beerOrderLineDTO.getId(), captor.getValue());
-        assertEquals(beerOrderLineDTO.getBeer(), beerOrderLineDTOCaptor.getValue().getBeer());
-        assertEquals(beerOrderLineDTO.getOrderQuantity(), beerOrderLineDTOCaptor.getValue().getOrderQuantity());
-        assertEquals(BeerOrderLineStatus.COMPLETE, beerOrderLineDTOCaptor.getValue().getStatus());
+        verify(mockBeerOrderLineService).completeLines(linesCaptor.capture());
+        assertEquals(List.of(beerOrderLineDTO), linesCaptor.getValue());
+        verify(mockBeerOrderLineService, never()).update(any(UUID.class), any(BeerOrderLineDTO.class));
     }
 
+    // Verify that a poll's worth of events is applied with a single call and events without a line are skipped
+    @Test
+    public void test_batch_of_events_completes_lines_in_one_call() {
+        // Given
+        BeerOrderLineDTO other = BeerOrderLineDTO.builder().id(UUID.randomUUID()).orderQuantity(1).build();
+        BDDMockito.given(mockBeerOrderLineService.completeLines(anyList())).willReturn(2);
 
+        // When
+        listener.drinksPrepared(List.of(event, new DrinkPreparedEvent(other), new DrinkPreparedEvent(null)));
 
-}
\ No newline at end of file
+        // Then
+        verify(mockBeerOrderLineService).completeLines(linesCaptor.capture());
+        assertEquals(List.of(beerOrderLineDTO, other), linesCaptor.getValue());
+    }
+}
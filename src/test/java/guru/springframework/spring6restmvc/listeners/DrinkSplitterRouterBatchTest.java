@@ -0,0 +1,103 @@
+package guru.springframework.spring6restmvc.listeners;
+
+import guru.springframework.spring6restmvc.config.KafkaConfig;
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
+import guru.springframework.spring6restmvcapi.events.OrderPlacedEvent;
+import guru.springframework.spring6restmvcapi.model.BeerDTO;
+import guru.springframework.spring6restmvcapi.model.BeerOrderDTO;
+import guru.springframework.spring6restmvcapi.model.BeerOrderLineDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:14:20
+ */
+@ExtendWith(MockitoExtension.class)
+class DrinkSplitterRouterBatchTest {
+
+    @Mock
+    KafkaTemplate<String, Object> kafkaTemplate;
+
+    DrinkSplitterRouter drinkSplitterRouter;
+
+    @BeforeEach
+    void setUp() {
+        drinkSplitterRouter = new DrinkSplitterRouter(kafkaTemplate, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void sendsEveryLineKeyedByOrderId() {
+        // Given
+        OrderPlacedEvent first = order(BeerStyle.LAGER, BeerStyle.IPA);
+        OrderPlacedEvent second = order(BeerStyle.GOSE, BeerStyle.STOUT, BeerStyle.SAISON);
+        given(kafkaTemplate.send(anyString(), anyString(), any())).willReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        drinkSplitterRouter.receive(List.of(first, second));
+
+        // Then
+        String firstKey = first.getBeerOrderDTO().getId().toString();
+        String secondKey = second.getBeerOrderDTO().getId().toString();
+        verify(kafkaTemplate).send(eq(KafkaConfig.DRINK_REQUEST_ICE_COLD_TOPIC), eq(firstKey), any());
+        verify(kafkaTemplate).send(eq(KafkaConfig.DRINK_REQUEST_COOL_TOPIC), eq(firstKey), any());
+        verify(kafkaTemplate).send(eq(KafkaConfig.DRINK_REQUEST_COLD_TOPIC), eq(secondKey), any());
+        verify(kafkaTemplate).send(eq(KafkaConfig.DRINK_REQUEST_COOL_TOPIC), eq(secondKey), any());
+        verify(kafkaTemplate).send(eq(KafkaConfig.DRINK_REQUEST_ICE_COLD_TOPIC), eq(secondKey), any());
+        verify(kafkaTemplate, times(5)).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    void failsBatchWhenASendFails() {
+        // Given
+        given(kafkaTemplate.send(anyString(), anyString(), any()))
+                .willReturn(CompletableFuture.completedFuture(null))
+                .willReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        // When / Then
+        assertThrows(IllegalStateException.class,
+                () -> drinkSplitterRouter.receive(List.of(order(BeerStyle.LAGER), order(BeerStyle.ALE))));
+    }
+
+    @Test
+    void skipsInvalidOrders() {
+        // When
+        drinkSplitterRouter.receive(List.of(OrderPlacedEvent.builder().build(),
+                OrderPlacedEvent.builder().beerOrderDTO(BeerOrderDTO.builder().id(UUID.randomUUID()).build()).build()));
+
+        // Then
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    private static OrderPlacedEvent order(BeerStyle... styles) {
+        return OrderPlacedEvent.builder().beerOrderDTO(BeerOrderDTO.builder()
+                .id(UUID.randomUUID())
+                .orderLines(new LinkedHashSet<>(Arrays.stream(styles)
+                        .map(style -> BeerOrderLineDTO.builder().id(UUID.randomUUID())
+                                .beer(BeerDTO.builder().id(UUID.randomUUID()).beerStyle(style).beerName("Test " + style).build())
+                                .build())
+                        .toList()))
+                .build()).build();
+    }
+}
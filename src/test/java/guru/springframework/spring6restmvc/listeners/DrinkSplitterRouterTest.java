@@ -17,6 +17,7 @@ import org.springframework.kafka.test.utils.ContainerTestUtils;
 import org.springframework.test.annotation.DirtiesContext;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -53,7 +54,7 @@ class DrinkSplitterRouterTest {
     @Test
     void receive() {
         OrderPlacedEvent e = OrderPlacedEvent.builder().beerOrderDTO(buildOrder()).build();
-        drinkSplitterRouter.receive(e);
+        drinkSplitterRouter.receive(List.of(e));
         Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
                 assertEquals(1, drinkRequestKafkaConsumer.iceColdMessageCounter.get()));
         Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
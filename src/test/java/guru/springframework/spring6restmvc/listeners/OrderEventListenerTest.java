@@ -26,7 +26,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * Date:28/04/2025
  * Time:00:17
  */
-@SpringBootTest
+@SpringBootTest(properties = "app.outbox.enabled=true")
 @EmbeddedKafka(controlledShutdown = true, topics = {KafkaConfig.ORDER_PLACED_TOPIC}, partitions = 1, kraft = true)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
 class OrderEventListenerTest {
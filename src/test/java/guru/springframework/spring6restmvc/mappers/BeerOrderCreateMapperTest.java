@@ -0,0 +1,104 @@
+package guru.springframework.spring6restmvc.mappers;
+
+import guru.springframework.spring6restmvc.domain.Beer;
+import guru.springframework.spring6restmvc.domain.BeerOrder;
+import guru.springframework.spring6restmvc.domain.Customer;
+import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.repository.BeerRepository;
+import guru.springframework.spring6restmvc.repository.CustomerRepository;
+import guru.springframework.spring6restmvcapi.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvcapi.model.BeerOrderLineCreateDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mapstruct.factory.Mappers;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:17:05
+ */
+@ExtendWith(MockitoExtension.class)
+class BeerOrderCreateMapperTest {
+
+    @Mock
+    CustomerRepository customerRepository;
+    @Mock
+    BeerRepository beerRepository;
+
+    BeerOrderCreateMapper beerOrderCreateMapper;
+    Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        beerOrderCreateMapper = Mappers.getMapper(BeerOrderCreateMapper.class);
+        beerOrderCreateMapper.setCustomerRepository(customerRepository, beerRepository);
+        customer = Customer.builder().id(UUID.randomUUID()).name("John").build();
+    }
+
+    @Test
+    void resolvesAllBeersWithOneQuery() {
+        // Given
+        List<Beer> beers = IntStream.range(0, 40)
+                .mapToObj(i -> Beer.builder().id(UUID.randomUUID()).beerName("Beer " + i).build())
+                .toList();
+        given(customerRepository.findById(customer.getId())).willReturn(Optional.of(customer));
+        given(beerRepository.findAllById(anyIterable())).willReturn(beers);
+
+        // When
+        BeerOrder beerOrder = beerOrderCreateMapper.beerOrderCreateDTOToBeerOrder(order(beers.stream().map(Beer::getId)
+                .collect(Collectors.toSet())));
+
+        // Then
+        assertThat(beerOrder.getCustomer()).isEqualTo(customer);
+        assertThat(beerOrder.getOrderLines()).hasSize(40)
+                .allSatisfy(line -> assertThat(beers).contains(line.getBeer()));
+        verify(beerRepository, times(1)).findAllById(anyIterable());
+        verify(beerRepository, never()).findById(any());
+    }
+
+    @Test
+    void reportsEveryMissingReference() {
+        // Given
+        Beer known = Beer.builder().id(UUID.randomUUID()).beerName("Known").build();
+        UUID unknown1 = UUID.randomUUID();
+        UUID unknown2 = UUID.randomUUID();
+        given(customerRepository.findById(customer.getId())).willReturn(Optional.empty());
+        given(beerRepository.findAllById(anyIterable())).willReturn(List.of(known));
+
+        // When / Then
+        assertThatThrownBy(() -> beerOrderCreateMapper.beerOrderCreateDTOToBeerOrder(order(Set.of(known.getId(), unknown1, unknown2))))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("customer " + customer.getId())
+                .hasMessageContaining("beer " + unknown1)
+                .hasMessageContaining("beer " + unknown2)
+                .hasMessageNotContaining(known.getId().toString());
+    }
+
+    private BeerOrderCreateDTO order(Set<UUID> beerRefs) {
+        return BeerOrderCreateDTO.builder()
+                .customerId(customer.getId())
+                .orderLines(beerRefs.stream()
+                        .map(ref -> BeerOrderLineCreateDTO.builder().beerRef(ref).orderQuantity(1).build())
+                        .collect(Collectors.toSet()))
+                .build();
+    }
+}
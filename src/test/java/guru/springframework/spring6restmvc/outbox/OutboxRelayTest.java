@@ -0,0 +1,109 @@
+package guru.springframework.spring6restmvc.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6restmvc.config.KafkaConfig;
+import guru.springframework.spring6restmvc.domain.OutboxEvent;
+import guru.springframework.spring6restmvc.repository.OutboxEventRepository;
+import guru.springframework.spring6restmvcapi.events.OrderPlacedEvent;
+import guru.springframework.spring6restmvcapi.model.BeerOrderDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:13:40
+ */
+@SpringBootTest(properties = "app.outbox.enabled=true")
+@EmbeddedKafka(controlledShutdown = true, topics = {KafkaConfig.ORDER_PLACED_TOPIC}, partitions = 1, kraft = true)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class OutboxRelayTest {
+
+    @Autowired
+    KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    @Autowired
+    OutboxWriter outboxWriter;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    OutboxRelay outboxRelay;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        kafkaListenerEndpointRegistry.getListenerContainers().forEach(messageListenerContainer -> {
+            ContainerTestUtils.waitForAssignment(messageListenerContainer, 1);
+        });
+    }
+
+    @Test
+    void relaysAndDeletesAcknowledgedEvents() {
+        // Given
+        double publishedBefore = meterRegistry.get("outbox.published").counter().count();
+
+        // When
+        IntStream.range(0, 5).forEach(i -> {
+            UUID orderId = UUID.randomUUID();
+            outboxWriter.append(KafkaConfig.ORDER_PLACED_TOPIC, orderId.toString(),
+                    OrderPlacedEvent.builder().beerOrderDTO(BeerOrderDTO.builder().id(orderId).build()).build());
+        });
+
+        // Then
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).untilAsserted(() -> {
+            assertEquals(0, outboxEventRepository.count());
+            assertEquals(publishedBefore + 5, meterRegistry.get("outbox.published").counter().count());
+        });
+        assertEquals(0.0, meterRegistry.get("outbox.failed").counter().count());
+    }
+
+    @Test
+    void leavesRowsClaimedByAnotherRelayUntilTheClaimRunsOut() throws Exception {
+        // Given
+        UUID orderId = UUID.randomUUID();
+        OutboxEvent claimed = outboxEventRepository.save(OutboxEvent.builder()
+                .topic(KafkaConfig.ORDER_PLACED_TOPIC)
+                .eventKey(orderId.toString())
+                .payloadType(OrderPlacedEvent.class.getName())
+                .payload(objectMapper.writeValueAsString(OrderPlacedEvent.builder()
+                        .beerOrderDTO(BeerOrderDTO.builder().id(orderId).build()).build()))
+                .claimedUntil(LocalDateTime.now().plusHours(1))
+                .build());
+
+        // When
+        outboxRelay.relayBatch();
+
+        // Then
+        assertTrue(outboxEventRepository.existsById(claimed.getId()));
+
+        // When - the other relay's claim runs out
+        claimed.setClaimedUntil(LocalDateTime.now().minusSeconds(1));
+        outboxEventRepository.save(claimed);
+
+        // Then
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).untilAsserted(() ->
+                assertFalse(outboxEventRepository.existsById(claimed.getId())));
+    }
+}
@@ -0,0 +1,67 @@
+package guru.springframework.spring6restmvc.repository;
+
+import guru.springframework.spring6restmvc.domain.Beer;
+import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards against the categories N+1: a page of beers must cost the same number of statements however large it is.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:08:12
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BeerFetchPlanTest {
+
+    static final int PAGE_SIZE = 50;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    BeerMapper beerMapper;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Transactional
+    @Test
+    void pageOfBeersDoesNotLoadCategories() {
+        Page<Beer> page = beerRepository.findAll(PageRequest.of(0, PAGE_SIZE, Sort.by("beerName")));
+        page.getContent().forEach(beerMapper::beerToBeerDTO);
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        // one select for the rows, one for the total
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Transactional
+    @Test
+    void categoriesForAPageAreBatchFetched() {
+        Page<Beer> page = beerRepository.findAll(PageRequest.of(0, PAGE_SIZE, Sort.by("beerName")));
+        page.getContent().forEach(beer -> beer.getCategories().size());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,82 @@
+package guru.springframework.spring6restmvc.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:07:40
+ */
+class BeerNameIndexTest {
+
+    static final UUID SUNRISE = UUID.randomUUID();
+    static final UUID SUNSHINE = UUID.randomUUID();
+    static final UUID GALAXY = UUID.randomUUID();
+
+    BeerNameIndex beerNameIndex;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        EntityManager entityManager = mock(EntityManager.class);
+        TypedQuery<Object[]> query = mock(TypedQuery.class);
+        given(entityManager.createQuery(anyString(), eq(Object[].class))).willReturn(query);
+        given(query.getResultList()).willReturn(List.of(
+                new Object[]{SUNRISE, "Sunrise Ale"},
+                new Object[]{SUNSHINE, "Sunshine Pils"},
+                new Object[]{GALAXY, "Galaxy IPA"}));
+
+        beerNameIndex = new BeerNameIndex(entityManager, new SimpleMeterRegistry(), 2);
+        beerNameIndex.rebuild();
+    }
+
+    @Test
+    void matchesSubstringIgnoringCase() {
+        assertThat(beerNameIndex.candidates("RISE")).contains(Set.of(SUNRISE));
+        assertThat(beerNameIndex.candidates("sun")).contains(Set.of(SUNRISE, SUNSHINE));
+    }
+
+    @Test
+    void dropsTrigramFalsePositives() {
+        // "sun" and "ale" both occur in "Sunrise Ale" but not as one substring
+        assertThat(beerNameIndex.candidates("sunale")).contains(Set.of());
+    }
+
+    @Test
+    void declinesWhatItCannotAnswer() {
+        assertThat(beerNameIndex.candidates("su")).isEmpty();
+        assertThat(beerNameIndex.candidates("s%n")).isEmpty();
+        assertThat(beerNameIndex.candidates("a")).isEmpty();
+    }
+
+    @Test
+    void declinesWhenTooManyMatches() {
+        beerNameIndex.put(UUID.randomUUID(), "Sunset Stout");
+
+        assertThat(beerNameIndex.candidates("sun")).isEmpty();
+    }
+
+    @Test
+    void followsRenamesAndDeletes() {
+        beerNameIndex.put(GALAXY, "Nebula IPA");
+        beerNameIndex.remove(SUNRISE);
+
+        assertThat(beerNameIndex.candidates("galaxy")).contains(Set.of());
+        assertThat(beerNameIndex.candidates("nebula")).contains(Set.of(GALAXY));
+        assertThat(beerNameIndex.candidates("rise")).contains(Set.of());
+    }
+}
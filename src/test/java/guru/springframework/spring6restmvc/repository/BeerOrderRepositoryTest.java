@@ -1,15 +1,27 @@
 package guru.springframework.spring6restmvc.repository;
 
 import guru.springframework.spring6restmvc.domain.*;
+import guru.springframework.spring6restmvc.services.BeerOrderLineService;
+import guru.springframework.spring6restmvcapi.enums.BeerOrderLineStatus;
+import guru.springframework.spring6restmvcapi.model.BeerOrderLineDTO;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.annotation.Rollback;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -32,6 +44,15 @@ class BeerOrderRepositoryTest {
     @Autowired
     BeerOrderShipmentRepository beerOrderShipmentRepository;
 
+    @Autowired
+    BeerOrderLineRepository beerOrderLineRepository;
+
+    @Autowired
+    BeerOrderLineService beerOrderLineService;
+
+    @Autowired
+    EntityManager entityManager;
+
     private Beer beer;
     private Customer customer;
 
@@ -98,5 +119,60 @@ class BeerOrderRepositoryTest {
 
     }
 
+    @Rollback
+    @Transactional
+    @Test
+    void customerOrderIdsKeysetWalk() {
+        // Given
+        Customer regular = customerRepository.save(Customer.builder().name("Regular").build());
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(beerOrderRepository.save(BeerOrder.builder().customer(regular)
+                    .orderLines(Set.of(BeerOrderLine.builder().beer(beer).orderQuantity(1).build())).build()).getId());
+        }
+        beerOrderRepository.flush();
+        // re-read, so created dates carry the precision the column stored rather than the clock's
+        entityManager.clear();
+        List<BeerOrder> orders = beerOrderRepository.findAllById(ids);
+        Map<UUID, BeerOrder> byId = orders.stream().collect(Collectors.toMap(BeerOrder::getId, Function.identity()));
+
+        // When
+        List<UUID> walked = new ArrayList<>(beerOrderRepository.findIdsByCustomer(regular.getId(), Limit.of(2)));
+        List<UUID> window = walked;
+        while (!window.isEmpty()) {
+            BeerOrder last = byId.get(walked.getLast());
+            window = beerOrderRepository.findIdsByCustomerBefore(regular.getId(), last.getCreatedDate(), last.getId(), Limit.of(2));
+            walked.addAll(window);
+        }
+
+        // Then
+        List<UUID> expected = orders.stream()
+                .sorted(Comparator.comparing(BeerOrder::getCreatedDate).thenComparing(order -> order.getId().toString()).reversed())
+                .map(BeerOrder::getId)
+                .toList();
+        assertEquals(expected, walked);
+    }
 
-}
\ No newline at end of file
+    @Rollback
+    @Transactional
+    @Test
+    void completesLineEditedSinceItWasPrepared() {
+        // Given - the drink was prepared against version 0, then the order was edited
+        BeerOrder saved = beerOrderRepository.saveAndFlush(BeerOrder.builder().customer(customer)
+                .orderLines(Set.of(BeerOrderLine.builder().beer(beer).orderQuantity(2).build())).build());
+        BeerOrderLine line = saved.getOrderLines().iterator().next();
+        Integer preparedVersion = line.getVersion();
+        line.setOrderQuantity(3);
+        beerOrderRepository.saveAndFlush(saved);
+
+        // When
+        int updated = beerOrderLineService.completeLines(List.of(
+                BeerOrderLineDTO.builder().id(line.getId()).version(preparedVersion).build()));
+
+        // Then
+        assertEquals(1, updated);
+        BeerOrderLine completed = beerOrderLineRepository.findById(line.getId()).orElseThrow();
+        assertEquals(BeerOrderLineStatus.COMPLETE, completed.getStatus());
+        assertEquals(3, completed.getQuantityAllocated());
+    }
+}
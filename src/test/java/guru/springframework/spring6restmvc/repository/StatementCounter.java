@@ -0,0 +1,35 @@
+package guru.springframework.spring6restmvc.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the statements Hibernate prepares on the current thread between {@link #start()} and {@link #stop()}, so a
+ * fetch plan test is not thrown off by background pollers sharing the session factory. Register it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ *
+ * Author:john
+ * Date:18/10/2026
+ * Time:21:10
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null)
+            count[0]++;
+        return sql;
+    }
+}
@@ -3,15 +3,21 @@ package guru.springframework.spring6restmvc.services;
 import guru.springframework.spring6restmvc.model.BeerCSVRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.junit.jupiter.MockitoExtension;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.util.ResourceUtils;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -22,6 +28,9 @@ class BeerCSVServiceImplTest {
 
     private BeerCSVServiceImpl beerCSVService;
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     void setUp() {
         beerCSVService = new BeerCSVServiceImpl();
@@ -36,4 +45,64 @@ class BeerCSVServiceImplTest {
         assertNotNull(records);
         assertThat(records.size()).isGreaterThan(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamCSVMatchesConvertCSV() throws FileNotFoundException {
+        // Given
+        File file = ResourceUtils.getFile("classpath:csvdata/beers.csv");
+
+        // When
+        List<BeerCSVRecord> streamed;
+        try (Stream<BeerCSVRecord> records = beerCSVService.streamCSV(file)) {
+            streamed = records.toList();
+        }
+
+        // Then
+        assertThat(streamed).isEqualTo(beerCSVService.convertCSV(file));
+    }
+
+    @Test
+    void streamCSVWithTransformKeepsFileOrder() throws Exception {
+        // Given
+        int rows = BeerCSVServiceImpl.BATCH_SIZE * (BeerCSVServiceImpl.BATCHES_IN_FLIGHT + 3) + 7;
+        File file = writeCsv(rows);
+
+        // When
+        List<Integer> result;
+        try (Stream<Integer> transformed = beerCSVService.streamCSV(file, BeerCSVRecord::getRow)) {
+            result = transformed.toList();
+        }
+
+        // Then
+        assertThat(result).containsExactlyElementsOf(IntStream.rangeClosed(1, rows).boxed().toList());
+    }
+
+    @Test
+    void streamCSVWithTransformFailsAtTheOffendingRecord() throws Exception {
+        // Given
+        File file = writeCsv(10);
+
+        // When
+        try (Stream<Integer> transformed = beerCSVService.streamCSV(file, rec -> {
+            if (rec.getRow() == 4)
+                throw new IllegalArgumentException("bad row 4");
+            return rec.getRow();
+        })) {
+            Iterator<Integer> rows = transformed.iterator();
+
+            // Then
+            assertThat(rows.next()).isEqualTo(1);
+            assertThat(rows.next()).isEqualTo(2);
+            assertThat(rows.next()).isEqualTo(3);
+            assertThatThrownBy(rows::next).isInstanceOf(IllegalArgumentException.class).hasMessage("bad row 4");
+        }
+    }
+
+    private File writeCsv(int rows) throws Exception {
+        Path csv = tempDir.resolve("beers-" + rows + ".csv");
+        Files.writeString(csv, IntStream.rangeClosed(1, rows)
+                .mapToObj(i -> i + ",Beer " + i + ",American IPA," + i)
+                .collect(Collectors.joining("\n", "row,beer,style,count.x\n", "\n")));
+        return csv.toFile();
+    }
+}
@@ -0,0 +1,102 @@
+package guru.springframework.spring6restmvc.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6restmvc.domain.Beer;
+import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.BeerExportFormat;
+import guru.springframework.spring6restmvc.repository.BeerRepository;
+import guru.springframework.spring6restmvcapi.enums.BeerStyle;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:09:10
+ */
+@ExtendWith(MockitoExtension.class)
+class BeerExportServiceImplTest {
+
+    public static final Beer beer1 = Beer.builder().id(UUID.randomUUID()).beerName("Galaxy, Hazy").beerStyle(BeerStyle.IPA)
+            .upc("123").price(BigDecimal.TEN).build();
+    public static final Beer beer2 = Beer.builder().id(UUID.randomUUID()).beerName("Stella").beerStyle(BeerStyle.LAGER)
+            .upc("456").price(new BigDecimal("4.50")).build();
+
+    @Mock
+    BeerRepository beerRepository;
+    @Mock
+    EntityManager entityManager;
+
+    BeerExportService beerExportService;
+    ByteArrayOutputStream out;
+
+    @BeforeEach
+    void setUp() {
+        beerExportService = new BeerExportServiceImpl(beerRepository, BeerMapper.INSTANCE, entityManager,
+                new ObjectMapper().findAndRegisterModules());
+        out = new ByteArrayOutputStream();
+    }
+
+    @Test
+    void exportNdjson() throws Exception {
+        // Given
+        given(beerRepository.streamForExport(null, null)).willReturn(Stream.of(beer1, beer2));
+
+        // When
+        long written = beerExportService.exportBeers(Optional.empty(), Optional.empty(), BeerExportFormat.NDJSON, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(written).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"beerName\":\"Galaxy, Hazy\"");
+        assertThat(lines[1]).contains("\"beerName\":\"Stella\"");
+    }
+
+    @Test
+    void exportCsvWithFilter() throws Exception {
+        // Given
+        given(beerRepository.streamForExport("galaxy", BeerStyle.IPA)).willReturn(Stream.of(beer1));
+
+        // When
+        beerExportService.exportBeers(Optional.of("Galaxy"), Optional.of(BeerStyle.IPA), BeerExportFormat.CSV, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).isEqualTo(String.join(",", BeerExportServiceImpl.CSV_HEADER));
+        assertThat(lines[1]).startsWith(beer1.getId() + ",,\"Galaxy, Hazy\",IPA,123,,10,");
+    }
+
+    @Test
+    void clearsPersistenceContextPeriodically() throws Exception {
+        // Given
+        int count = BeerExportServiceImpl.CLEAR_EVERY * 2 + 1;
+        given(beerRepository.streamForExport(null, null)).willReturn(IntStream.range(0, count)
+                .mapToObj(i -> Beer.builder().id(UUID.randomUUID()).beerName("Beer " + i).build()));
+
+        // When
+        long written = beerExportService.exportBeers(Optional.empty(), Optional.empty(), BeerExportFormat.NDJSON, out);
+
+        // Then
+        assertThat(written).isEqualTo(count);
+        verify(entityManager, times(2)).clear();
+    }
+}
@@ -0,0 +1,140 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.cache.BeerListCache;
+import guru.springframework.spring6restmvc.cache.CacheInvalidationPublisher;
+import guru.springframework.spring6restmvc.events.BeersImportedEvent;
+import guru.springframework.spring6restmvc.mappers.BeerCSVRecordMapper;
+import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvc.model.BeerImportJob;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:10:05
+ */
+@ExtendWith(MockitoExtension.class)
+class BeerImportServiceImplTest {
+
+    @Mock
+    BeerCSVService beerCSVService;
+    @Mock
+    JdbcTemplate jdbcTemplate;
+    @Mock
+    PlatformTransactionManager transactionManager;
+    @Mock
+    BeerListCache beerListCache;
+    @Mock
+    CacheInvalidationPublisher cacheInvalidationPublisher;
+    @Mock
+    ApplicationEventPublisher applicationEventPublisher;
+    @Mock
+    AsyncTaskExecutor taskExecutor;
+
+    BeerImportServiceImpl beerImportService;
+
+    @BeforeEach
+    void setUp() {
+        beerImportService = new BeerImportServiceImpl(beerCSVService, BeerCSVRecordMapper.INSTANCE, BeerMapper.INSTANCE,
+                Validation.buildDefaultValidatorFactory().getValidator(), jdbcTemplate, transactionManager,
+                new ConcurrentMapCacheManager("beerCountCache"), beerListCache, cacheInvalidationPublisher,
+                applicationEventPublisher, taskExecutor, 2);
+    }
+
+    @Test
+    void startImportQueuesJob() throws Exception {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "beers.csv", "text/csv", "row,beer\n1,Stella\n".getBytes());
+
+        // When
+        BeerImportJob job = beerImportService.startImport(file);
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(BeerImportJob.Status.QUEUED);
+        assertThat(job.getFileName()).isEqualTo("beers.csv");
+        assertThat(beerImportService.getJob(job.getId())).contains(job);
+        verify(taskExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void runImportInsertsChunksAndSkipsInvalidRows() throws Exception {
+        // Given
+        List<BeerCSVRecord> records = IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> BeerCSVRecord.builder().row(i).beer(i == 3 ? " " : "Beer " + i).style("American IPA")
+                        .countX(i).build())
+                .toList();
+        given(beerCSVService.streamCSV(any(File.class), any()))
+                .willAnswer(invocation -> records.stream().map(invocation.<Function<BeerCSVRecord, ?>>getArgument(1)));
+        UUID jobId = beerImportService.startImport(new MockMultipartFile("file", "beers.csv", "text/csv", new byte[0])).getId();
+
+        // When
+        beerImportService.runImport(jobId, Path.of("does-not-exist.csv"), null);
+
+        // Then
+        BeerImportJob job = beerImportService.getJob(jobId).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(BeerImportJob.Status.COMPLETED);
+        assertThat(job.getRowsRead()).isEqualTo(5);
+        assertThat(job.getRowsImported()).isEqualTo(4);
+        assertThat(job.getChunksCommitted()).isEqualTo(2);
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(BeerImportServiceImpl.INSERT_BEER), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(beerListCache, times(2)).clear();
+        verify(cacheInvalidationPublisher, times(4)).beerNameChanged(any(UUID.class));
+
+        ArgumentCaptor<BeersImportedEvent> events = ArgumentCaptor.forClass(BeersImportedEvent.class);
+        verify(applicationEventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).allSatisfy(event -> assertThat(event.getJobId()).isEqualTo(jobId));
+        assertThat(events.getAllValues().getFirst().getBeers()).extracting("beerName").containsExactly("Beer 1", "Beer 2");
+    }
+
+    @Test
+    void runImportFailsOnChunkError() throws Exception {
+        // Given
+        List<BeerCSVRecord> records = List.of(BeerCSVRecord.builder().row(1).beer("Beer 1").style("American IPA").countX(1).build());
+        given(beerCSVService.streamCSV(any(File.class), any()))
+                .willAnswer(invocation -> records.stream().map(invocation.<Function<BeerCSVRecord, ?>>getArgument(1)));
+        given(jdbcTemplate.batchUpdate(eq(BeerImportServiceImpl.INSERT_BEER), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).willThrow(new IllegalStateException("boom"));
+        UUID jobId = beerImportService.startImport(new MockMultipartFile("file", "beers.csv", "text/csv", new byte[0])).getId();
+
+        // When
+        beerImportService.runImport(jobId, Path.of("does-not-exist.csv"), null);
+
+        // Then
+        BeerImportJob job = beerImportService.getJob(jobId).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(BeerImportJob.Status.FAILED);
+        assertThat(job.getError()).isEqualTo("boom");
+        assertThat(job.getChunksCommitted()).isZero();
+    }
+}
@@ -4,7 +4,9 @@ import guru.springframework.spring6restmvc.domain.Beer;
 import guru.springframework.spring6restmvc.domain.BeerOrderLine;
 import guru.springframework.spring6restmvc.mappers.BeerMapper;
 import guru.springframework.spring6restmvc.mappers.BeerOrderLineMapper;
+import guru.springframework.spring6restmvc.model.OrderLineStatusChange;
 import guru.springframework.spring6restmvc.repository.BeerOrderLineRepository;
+import guru.springframework.spring6restmvc.streams.OrderLineEventHub;
 import guru.springframework.spring6restmvcapi.enums.BeerOrderLineStatus;
 import guru.springframework.spring6restmvcapi.enums.BeerStyle;
 import guru.springframework.spring6restmvcapi.model.BeerDTO;
@@ -18,11 +20,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -40,6 +47,9 @@ class BeerOrderLineServiceImplTest {
     @Mock
     BeerOrderLineRepository beerOrderLineRepository;
 
+    @Mock
+    OrderLineEventHub orderLineEventHub;
+
     BeerOrderLineMapper beerOrderLineMapper;
     BeerMapper beerMapper;
 
@@ -53,7 +63,8 @@ class BeerOrderLineServiceImplTest {
     void setUp() {
         beerOrderLineMapper = BeerOrderLineMapper.INSTANCE;
         beerMapper = BeerMapper.INSTANCE;
-        beerOrderLineService = new BeerOrderLineServiceImpl(beerOrderLineRepository, beerOrderLineMapper, beerMapper);
+        beerOrderLineService = new BeerOrderLineServiceImpl(beerOrderLineRepository, beerOrderLineMapper, beerMapper,
+                orderLineEventHub);
 
         beerOrderLine = BeerOrderLine.builder().id(id)
                 .beer(Beer.builder().id(beerId).beerName(TEST_BEER).beerStyle(BeerStyle.ALE).upc("123456789012")
@@ -122,4 +133,42 @@ class BeerOrderLineServiceImplTest {
         assertEquals(id1, captor.getValue());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void completeLinesIgnoresVersionAndDedupes() {
+        // Given
+        UUID otherId = UUID.randomUUID();
+        BeerOrderLineDTO v0 = BeerOrderLineDTO.builder().id(id).version(0).build();
+        BeerOrderLineDTO duplicate = BeerOrderLineDTO.builder().id(id).version(0).build();
+        BeerOrderLineDTO v2 = BeerOrderLineDTO.builder().id(otherId).version(2).build();
+        BDDMockito.given(beerOrderLineRepository.updateStatusAllocated(anyCollection(),
+                eq(BeerOrderLineStatus.COMPLETE), any(LocalDateTime.class))).willReturn(2);
+
+        // When
+        int updated = beerOrderLineService.completeLines(List.of(v0, duplicate, v2));
+
+        // Then
+        assertEquals(2, updated);
+        verify(beerOrderLineRepository).updateStatusAllocated(eq(Set.of(id, otherId)), eq(BeerOrderLineStatus.COMPLETE),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    void completeLinesPublishesStatusChangesWhileSomeoneListens() {
+        // Given
+        BeerOrderLineDTO line = BeerOrderLineDTO.builder().id(id).version(0).build();
+        OrderLineStatusChange change = OrderLineStatusChange.builder().orderId(UUID.randomUUID()).orderLineId(id)
+                .status(BeerOrderLineStatus.COMPLETE).version(1).build();
+        BDDMockito.given(beerOrderLineRepository.updateStatusAllocated(anyCollection(),
+                eq(BeerOrderLineStatus.COMPLETE), any(LocalDateTime.class))).willReturn(1);
+        BDDMockito.given(orderLineEventHub.hasSubscribers()).willReturn(true);
+        BDDMockito.given(beerOrderLineRepository.findStatusChanges(anyCollection(), eq(BeerOrderLineStatus.COMPLETE),
+                any(LocalDateTime.class))).willReturn(List.of(change));
+
+        // When
+        beerOrderLineService.completeLines(List.of(line));
+
+        // Then
+        verify(orderLineEventHub).publish(List.of(change));
+    }
+}
@@ -4,25 +4,33 @@ import guru.springframework.spring6restmvc.domain.Beer;
 import guru.springframework.spring6restmvc.domain.BeerOrder;
 import guru.springframework.spring6restmvc.domain.BeerOrderLine;
 import guru.springframework.spring6restmvc.domain.Customer;
+import guru.springframework.spring6restmvc.exceptions.NotFoundException;
 import guru.springframework.spring6restmvc.mappers.BeerOrderCreateMapper;
 import guru.springframework.spring6restmvc.mappers.BeerOrderMapper;
+import guru.springframework.spring6restmvc.model.CursorPage;
+import guru.springframework.spring6restmvc.model.PageCursor;
 import guru.springframework.spring6restmvcapi.model.BeerDTO;
 import guru.springframework.spring6restmvcapi.model.BeerOrderDTO;
 import guru.springframework.spring6restmvcapi.model.BeerOrderLineDTO;
 import guru.springframework.spring6restmvcapi.model.CustomerDTO;
+import guru.springframework.spring6restmvc.repository.BeerOrderLineRepository;
 import guru.springframework.spring6restmvc.repository.BeerOrderRepository;
 import guru.springframework.spring6restmvc.repository.BeerRepository;
 import guru.springframework.spring6restmvc.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -31,6 +39,7 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -61,6 +70,9 @@ class BeerOrderServiceImplTest {
     @Mock
     CustomerRepository customerRepository;
 
+    @Mock
+    BeerOrderLineRepository beerOrderLineRepository;
+
     BeerOrderMapper beerOrderMapper;
     BeerOrderCreateMapper beerOrderCreateMapper;
 
@@ -76,7 +88,7 @@ class BeerOrderServiceImplTest {
         beerOrderCreateMapper = BeerOrderCreateMapper.INSTANCE;
 
         beerOrderService = new BeerOrderServiceImpl(beerOrderRepository, beerOrderMapper, beerOrderCreateMapper,
-                beerRepository, customerRepository, applicationEventPublisher);
+                beerRepository, customerRepository, beerOrderLineRepository, applicationEventPublisher, new SimpleMeterRegistry());
         beerOrder1 = BeerOrder.builder().id(ID_1)
                 .orderLines(Set.of(
                         BeerOrderLine.builder().beer(
@@ -104,8 +116,8 @@ class BeerOrderServiceImplTest {
     @Test
     void listOrders() {
         //given
-        Page<BeerOrder> beerOrders = new PageImpl<>(List.of(beerOrder1, beerOrder2));
-        given(beerOrderRepository.findAll(any(Pageable.class))).willReturn(beerOrders);
+        given(beerOrderRepository.findPageOfIds(any(Pageable.class))).willReturn(new PageImpl<>(List.of(ID_1, ID_2)));
+        given(beerOrderRepository.findGraphByIdIn(List.of(ID_1, ID_2))).willReturn(List.of(beerOrder2, beerOrder1));
 
         //when
         Page<BeerOrderDTO> beerOrderDTOs = beerOrderService.listOrders(1, 10);
@@ -118,6 +130,42 @@ class BeerOrderServiceImplTest {
         assertEquals(BEER_2, beerOrderDTOs.getContent().get(1).getOrderLines().stream().findFirst().get().getBeer().getBeerName());
     }
 
+    @Test
+    void listOrdersByCustomerAfterStartsNextWindowAtLastOrder() {
+        //given
+        UUID customerId = UUID.randomUUID();
+        LocalDateTime created = LocalDateTime.of(2026, 10, 18, 12, 30, 15, 123456000);
+        beerOrder1.setCreatedDate(created);
+        given(customerRepository.existsById(customerId)).willReturn(true);
+        given(beerOrderRepository.findIdsByCustomer(customerId, Limit.of(2))).willReturn(List.of(ID_1, ID_2));
+        given(beerOrderRepository.findGraphByIdIn(List.of(ID_1))).willReturn(List.of(beerOrder1));
+
+        //when
+        CursorPage<BeerOrderDTO> page = beerOrderService.listOrdersByCustomerAfter(customerId, Optional.of(""), Optional.of(1))
+                .orElseThrow();
+
+        //then
+        assertEquals(1, page.getContent().size());
+        assertEquals(ID_1, page.getContent().getFirst().getId());
+        PageCursor next = PageCursor.decode(page.getNextCursor());
+        assertEquals(ID_1, next.getId());
+        assertEquals(created, LocalDateTime.parse(next.getKey()));
+    }
+
+    @Test
+    void listOrdersByCustomerAfterUnknownCustomer() {
+        //given
+        given(customerRepository.existsById(any(UUID.class))).willReturn(false);
+
+        //when
+        Optional<CursorPage<BeerOrderDTO>> page = beerOrderService.listOrdersByCustomerAfter(UUID.randomUUID(),
+                Optional.of(""), Optional.empty());
+
+        //then
+        assertTrue(page.isEmpty());
+        verify(beerOrderRepository, never()).findIdsByCustomer(any(UUID.class), any(Limit.class));
+    }
+
     @Test
     void createOrder() {
         //given
@@ -223,6 +271,62 @@ class BeerOrderServiceImplTest {
         assertEquals(BEER_2, captor.getValue().getOrderLines().iterator().next().getBeer().getBeerName());
     }
 
+    @Test
+    void updateBeerOrderUpsertsLinesWithOneBeerQuery() {
+        //given
+        Beer beer1 = Beer.builder().id(UUID.randomUUID()).beerName(BEER_1).build();
+        Beer beer2 = Beer.builder().id(UUID.randomUUID()).beerName(BEER_2).build();
+        BeerOrderLine kept = BeerOrderLine.builder().id(UUID.randomUUID()).beer(beer1).orderQuantity(1).build();
+        BeerOrderLine dropped = BeerOrderLine.builder().id(UUID.randomUUID()).beer(beer2).orderQuantity(5).build();
+        BeerOrder order = BeerOrder.builder().id(ID_1).customer(Customer.builder().name(JOHN).build())
+                .orderLines(new HashSet<>(Set.of(kept, dropped))).build();
+        given(beerOrderRepository.findById(ID_1)).willReturn(Optional.of(order));
+        given(beerRepository.findAllById(any())).willReturn(List.of(beer1, beer2));
+        given(beerOrderRepository.save(any(BeerOrder.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        BeerOrderDTO update = BeerOrderDTO.builder().id(ID_1).orderLines(Set.of(
+                BeerOrderLineDTO.builder().id(kept.getId()).orderQuantity(3)
+                        .beer(BeerDTO.builder().id(beer2.getId()).build()).build(),
+                BeerOrderLineDTO.builder().orderQuantity(2)
+                        .beer(BeerDTO.builder().id(beer1.getId()).build()).build())).build();
+
+        //when
+        beerOrderService.updateBeerOrder(ID_1, update);
+
+        //then
+        assertEquals(2, order.getOrderLines().size());
+        assertTrue(order.getOrderLines().stream().anyMatch(line -> line == kept));
+        assertTrue(order.getOrderLines().stream().noneMatch(line -> line == dropped));
+        assertEquals(3, kept.getOrderQuantity());
+        assertEquals(beer2, kept.getBeer());
+        verify(beerRepository).findAllById(any());
+        verify(beerRepository, never()).findById(any());
+        verify(beerOrderLineRepository).deleteAll(List.of(dropped));
+    }
+
+    @Test
+    void updateBeerOrderReportsAllUnknownReferences() {
+        //given
+        BeerOrder order = BeerOrder.builder().id(ID_1).customer(Customer.builder().name(JOHN).build())
+                .orderLines(new HashSet<>()).build();
+        UUID unknownLine = UUID.randomUUID();
+        UUID unknownBeer = UUID.randomUUID();
+        given(beerOrderRepository.findById(ID_1)).willReturn(Optional.of(order));
+        given(beerRepository.findAllById(any())).willReturn(List.of());
+
+        BeerOrderDTO update = BeerOrderDTO.builder().id(ID_1).orderLines(Set.of(
+                BeerOrderLineDTO.builder().id(unknownLine).orderQuantity(1)
+                        .beer(BeerDTO.builder().id(unknownBeer).build()).build())).build();
+
+        //when
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> beerOrderService.updateBeerOrder(ID_1, update));
+
+        //then
+        assertTrue(exception.getMessage().contains("order line " + unknownLine));
+        assertTrue(exception.getMessage().contains("beer " + unknownBeer));
+        verify(beerOrderRepository, never()).save(any());
+    }
+
     @Test
     void count() {
         //given
@@ -1,11 +1,19 @@
 package guru.springframework.spring6restmvc.services;
 
+import guru.springframework.spring6restmvc.cache.BeerListCache;
+import guru.springframework.spring6restmvc.cache.BeerState;
+import guru.springframework.spring6restmvc.cache.CacheInvalidationPublisher;
 import guru.springframework.spring6restmvc.domain.Beer;
+import guru.springframework.spring6restmvc.inventory.InventoryLedger;
 import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.CursorPage;
+import guru.springframework.spring6restmvc.model.PageCursor;
 import guru.springframework.spring6restmvcapi.model.BeerDTO;
 import guru.springframework.spring6restmvcapi.model.BeerSearchCriteria;
 import guru.springframework.spring6restmvcapi.enums.BeerStyle;
+import guru.springframework.spring6restmvc.repository.BeerNameIndex;
 import guru.springframework.spring6restmvc.repository.BeerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.validation.ConstraintViolationException;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,10 +28,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -48,10 +59,18 @@ class BeerServiceImplTest {
     CacheManager cacheManager;
     @Mock
     ApplicationEventPublisher applicationEventPublisher;
+    @Mock
+    CacheInvalidationPublisher cacheInvalidationPublisher;
+    @Mock
+    BeerNameIndex beerNameIndex;
+    @Mock
+    InventoryLedger inventoryLedger;
 
     @BeforeEach
     void setUp() {
-        beerService= new BeerServiceImpl(beerRepository, BeerMapper.INSTANCE, cacheManager, applicationEventPublisher);
+        beerService= new BeerServiceImpl(beerRepository, BeerMapper.INSTANCE, cacheManager, applicationEventPublisher,
+                new BeerListCache(cacheManager, new SimpleMeterRegistry()), cacheInvalidationPublisher, beerNameIndex,
+                inventoryLedger);
     }
 
     @Test
@@ -120,6 +139,108 @@ class BeerServiceImplTest {
         Assertions.assertThat(captorStyle.getValue()).isEqualTo(BeerStyle.WHEAT);
     }
 
+    @Test
+    void listBeerSlice() {
+        // Given
+        given(beerRepository.findSliceByBeerStyle(any(BeerStyle.class), any(Pageable.class)))
+                .willReturn(new SliceImpl<>(List.of(beer1), PageRequest.of(0, 1), true));
+
+        // When
+        Slice<BeerDTO> slice = beerService.listBeerSlice(Optional.empty(), Optional.of(BeerStyle.WHEAT), Optional.empty(), Optional.of(1));
+
+        // Then
+        Assertions.assertThat(slice.getContent()).hasSize(1);
+        Assertions.assertThat(slice.hasNext()).isTrue();
+        verify(beerRepository, never()).findByBeerStyle(any(), any());
+    }
+
+    @Test
+    void countBeersByName() {
+        // Given
+        given(beerRepository.countByBeerNameLikeIgnoreCase(anyString())).willReturn(7L);
+
+        // When
+        long count = beerService.countBeers(Optional.of(RISE), Optional.empty());
+
+        // Then
+        Assertions.assertThat(count).isEqualTo(7L);
+        verify(beerRepository).countByBeerNameLikeIgnoreCase("%" + RISE + "%");
+    }
+
+    @Test
+    void countBeersByNameCountsIndexedRowsThatStillExist() {
+        // Given
+        UUID deletedElsewhere = UUID.randomUUID();
+        given(beerNameIndex.candidates(RISE)).willReturn(Optional.of(Set.of(beer1.getId(), deletedElsewhere)));
+        given(beerRepository.countByIdIn(Set.of(beer1.getId(), deletedElsewhere))).willReturn(1L);
+
+        // When
+        long count = beerService.countBeers(Optional.of(RISE), Optional.empty());
+
+        // Then
+        Assertions.assertThat(count).isEqualTo(1L);
+        verify(beerRepository, never()).countByBeerNameLikeIgnoreCase(anyString());
+    }
+
+    @Test
+    void listBeersByNameUsesIndex() {
+        // Given
+        given(beerNameIndex.candidates(RISE)).willReturn(Optional.of(Set.of(beer1.getId())));
+        given(beerRepository.findByIdIn(eq(Set.of(beer1.getId())), any(Pageable.class))).willReturn(new PageImpl<>(List.of(beer1)));
+
+        // When
+        Page<BeerDTO> page = beerService.listBeers(Optional.of(RISE), Optional.empty(), Optional.empty(), Optional.empty());
+
+        // Then
+        Assertions.assertThat(page.getContent()).hasSize(1);
+        verify(beerRepository, never()).findByBeerNameLikeIgnoreCase(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void listBeersByNameNoIndexMatch() {
+        // Given
+        given(beerNameIndex.candidates(RISE)).willReturn(Optional.of(Set.of()));
+
+        // When
+        Page<BeerDTO> page = beerService.listBeers(Optional.of(RISE), Optional.empty(), Optional.empty(), Optional.empty());
+
+        // Then
+        Assertions.assertThat(page.getContent()).isEmpty();
+        verifyNoInteractions(beerRepository);
+    }
+
+    @Test
+    void listBeersAfter() {
+        // Given
+        Beer beer3 = Beer.builder().id(UUID.randomUUID()).beerName("Zombie Dust").build();
+        given(beerRepository.findBeersAfter(isNull(), isNull(), isNull(), eq(3))).willReturn(List.of(beer1, beer2, beer3));
+
+        // When
+        CursorPage<BeerDTO> page = beerService.listBeersAfter(Optional.empty(), Optional.empty(), Optional.of(""), Optional.of(2));
+
+        // Then
+        Assertions.assertThat(page.getContent()).hasSize(2);
+        Assertions.assertThat(page.hasNext()).isTrue();
+        Assertions.assertThat(PageCursor.decode(page.getNextCursor())).isEqualTo(PageCursor.of(beer2.getBeerName(), beer2.getId()));
+    }
+
+    @Test
+    void listBeersAfterCursor() {
+        // Given
+        String after = PageCursor.of(beer1.getBeerName(), beer1.getId()).encode();
+        given(beerRepository.findBeersAfter(isNull(), isNull(), any(PageCursor.class), eq(11))).willReturn(List.of(beer2));
+
+        // When
+        CursorPage<BeerDTO> page = beerService.listBeersAfter(Optional.empty(), Optional.empty(), Optional.of(after), Optional.empty());
+
+        // Then
+        Assertions.assertThat(page.getContent()).hasSize(1);
+        Assertions.assertThat(page.getNextCursor()).isNull();
+        ArgumentCaptor<PageCursor> captor = ArgumentCaptor.forClass(PageCursor.class);
+        verify(beerRepository).findBeersAfter(isNull(), isNull(), captor.capture(), eq(11));
+        Assertions.assertThat(captor.getValue().getId()).isEqualTo(beer1.getId());
+    }
+
     @Test
     void searchBeers() {
         // Given
@@ -163,6 +284,8 @@ class BeerServiceImplTest {
         Assertions.assertThat(savedBeerDTO).isNotNull();
         Assertions.assertThat(savedBeerDTO.getId()).isNotNull();
         Assertions.assertThat(savedBeerDTO.getBeerName()).isEqualTo(beer1.getBeerName());
+        verify(cacheInvalidationPublisher).beerNameChanged(beer1.getId());
+        verify(cacheInvalidationPublisher, never()).evict(eq("beerCache"), any(UUID.class));
     }
 
     @Test
@@ -198,29 +321,33 @@ class BeerServiceImplTest {
     @Test
     void deleteById() {
         // Given
-        given(beerRepository.existsById(any(UUID.class))).willReturn(true);
+        given(beerRepository.findById(any(UUID.class))).willReturn(Optional.of(beer1));
 
         // When
         boolean deleted = beerService.deleteById(beer1.getId());
 
         // Then
         Assertions.assertThat(deleted).isTrue();
-        ArgumentCaptor<UUID> captor = ArgumentCaptor.forClass(UUID.class);
-        verify(beerRepository, times(1)).deleteById(captor.capture());
-        Assertions.assertThat(captor.getValue()).isEqualTo(beer1.getId());
+        ArgumentCaptor<Beer> captor = ArgumentCaptor.forClass(Beer.class);
+        verify(beerRepository, times(1)).delete(captor.capture());
+        Assertions.assertThat(captor.getValue().getId()).isEqualTo(beer1.getId());
+        verify(cacheInvalidationPublisher).evict("beerCache", beer1.getId());
+        verify(cacheInvalidationPublisher).clear("beerCountCache");
+        verify(cacheInvalidationPublisher).beerListChanged(BeerState.of(beer1), null);
+        verify(cacheInvalidationPublisher).beerNameChanged(beer1.getId());
     }
 
     @Test
     void deleteByIdNotFound(){
         // Given
-        given(beerRepository.existsById(any(UUID.class))).willReturn(false);
+        given(beerRepository.findById(any(UUID.class))).willReturn(Optional.empty());
 
         // When
         boolean deleted = beerService.deleteById(beer1.getId());
 
         // Then
         Assertions.assertThat(deleted).isFalse();
-        verify(beerRepository, never()).deleteById(any(UUID.class));
+        verify(beerRepository, never()).delete(any(Beer.class));
     }
 
 
@@ -1,5 +1,6 @@
 package guru.springframework.spring6restmvc.services;
 
+import guru.springframework.spring6restmvc.cache.CacheInvalidationPublisher;
 import guru.springframework.spring6restmvc.domain.Customer;
 import guru.springframework.spring6restmvc.mappers.CustomerMapper;
 import guru.springframework.spring6restmvcapi.model.CustomerDTO;
@@ -14,6 +15,9 @@ import org.mockito.BDDMockito;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Optional;
@@ -46,26 +50,32 @@ class CustomerServiceImplTest {
     @Mock
     CacheManager cacheManager;
 
+    @Mock
+    CacheInvalidationPublisher cacheInvalidationPublisher;
 
     @BeforeEach
     void setUp() {
-        customerService = new CustomerServiceImpl(customerRepository, CustomerMapper.INSTANCE, cacheManager);
+        customerService = new CustomerServiceImpl(customerRepository, CustomerMapper.INSTANCE, cacheManager, cacheInvalidationPublisher);
     }
 
     @Test
     void listCustomers() {
         // Given
-        given(customerRepository.findAll()).willReturn(List.of(
+        given(customerRepository.findAll(any(Pageable.class))).willReturn(new PageImpl<>(List.of(
                 Customer.builder().id(UUID_1).name(NAME_1).build(),
-                Customer.builder().id(UUID_2).name(NAME_2).build()));
+                Customer.builder().id(UUID_2).name(NAME_2).build())));
 
         // When
-        List<CustomerDTO> customers = customerService.listCustomers();
+        Page<CustomerDTO> customers = customerService.listCustomers(null, null);
 
         // Then
-        assertEquals(2, customers.size());
-        assertEquals(UUID_1, customers.get(0).getId());
-        assertEquals(UUID_2, customers.get(1).getId());
+        assertEquals(2, customers.getContent().size());
+        assertEquals(UUID_1, customers.getContent().get(0).getId());
+        assertEquals(UUID_2, customers.getContent().get(1).getId());
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(customerRepository).findAll(pageableCaptor.capture());
+        assertEquals(0, pageableCaptor.getValue().getPageNumber());
+        assertEquals(25, pageableCaptor.getValue().getPageSize());
 
     }
 
@@ -0,0 +1,95 @@
+package guru.springframework.spring6restmvc.streams;
+
+import guru.springframework.spring6restmvc.model.OrderLineStatusChange;
+import guru.springframework.spring6restmvcapi.enums.BeerOrderLineStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Author:john
+ * Date:18/10/2026
+ * Time:19:05
+ */
+class OrderLineEventHubTest {
+
+    SimpleMeterRegistry meterRegistry;
+    OrderLineEventHub orderLineEventHub;
+    UUID orderId;
+    UUID customerId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        orderLineEventHub = new OrderLineEventHub(meterRegistry, 2, Duration.ofSeconds(15), Duration.ofMinutes(1));
+        orderId = UUID.randomUUID();
+        customerId = UUID.randomUUID();
+    }
+
+    @Test
+    void deliversToOrderAndCustomerStreamsOnly() {
+        // Given
+        OrderLineSubscriber orderStream = subscriber(OrderLineSubscriber.Scope.ORDER, orderId);
+        OrderLineSubscriber customerStream = subscriber(OrderLineSubscriber.Scope.CUSTOMER, customerId);
+        OrderLineSubscriber otherOrderStream = subscriber(OrderLineSubscriber.Scope.ORDER, UUID.randomUUID());
+
+        // When
+        orderLineEventHub.publish(change(0));
+
+        // Then
+        assertEquals(1, orderStream.buffered());
+        assertEquals(1, customerStream.buffered());
+        assertEquals(0, otherOrderStream.buffered());
+        assertEquals(2, meterRegistry.counter("order.events.delivered").count());
+    }
+
+    @Test
+    void fullBufferDropsOldestAndFlagsOverflow() {
+        // Given
+        OrderLineSubscriber orderStream = subscriber(OrderLineSubscriber.Scope.ORDER, orderId);
+
+        // When
+        orderLineEventHub.publish(change(0));
+        orderLineEventHub.publish(change(1));
+        orderLineEventHub.publish(change(2));
+
+        // Then
+        assertTrue(orderStream.takeOverflow());
+        assertEquals(1, orderStream.poll().getVersion());
+        assertEquals(2, orderStream.poll().getVersion());
+        assertEquals(1, meterRegistry.counter("order.events.dropped").count());
+    }
+
+    @Test
+    void closedStreamIsUnregistered() {
+        // Given
+        OrderLineSubscriber orderStream = subscriber(OrderLineSubscriber.Scope.ORDER, orderId);
+        assertTrue(orderLineEventHub.hasSubscribers());
+
+        // When
+        orderStream.close();
+        orderLineEventHub.publish(change(0));
+
+        // Then
+        assertTrue(orderStream.isClosed());
+        assertFalse(orderLineEventHub.hasSubscribers());
+        assertEquals(0, orderStream.buffered());
+    }
+
+    private OrderLineSubscriber subscriber(OrderLineSubscriber.Scope scope, UUID key) {
+        OrderLineSubscriber subscriber = orderLineEventHub.newSubscriber(scope, key, new SseEmitter());
+        orderLineEventHub.register(subscriber);
+        return subscriber;
+    }
+
+    private OrderLineStatusChange change(int version) {
+        return OrderLineStatusChange.builder().orderId(orderId).customerId(customerId).orderLineId(UUID.randomUUID())
+                .status(BeerOrderLineStatus.COMPLETE).version(version).build();
+    }
+}